@@ -0,0 +1,126 @@
+package com.inventory.smart.benchmarks;
+
+import com.inventory.smart.repository.UserRepository;
+import com.inventory.smart.security.AuthTokenFilter;
+import com.inventory.smart.security.JwtUtils;
+import com.inventory.smart.security.VerifiedTokenCache;
+import com.inventory.smart.service.TokenVersionService;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link AuthTokenFilter} over a request carrying a bearer token, as the servlet
+ * container would. The user repository is a stub, so database time is excluded; the
+ * token version lookup still goes through {@link TokenVersionService}'s cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class AuthTokenFilterBenchmark {
+    private AuthTokenFilter cachedFilter;
+    private AuthTokenFilter uncachedFilter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtUtils jwtUtils = JwtUtilsBenchmark.newJwtUtils();
+        TokenVersionService tokenVersionService = newTokenVersionService();
+        cachedFilter = newFilter(jwtUtils, tokenVersionService, newVerifiedTokenCache(50000));
+        // A zero-sized cache never returns a hit, so every request verifies the signature
+        uncachedFilter = newFilter(jwtUtils, tokenVersionService, newVerifiedTokenCache(0));
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(Fixtures.principal(), null,
+                Fixtures.principal().getAuthorities());
+        authorization = "Bearer " + jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public void verifiedTokenCacheHit(Blackhole blackhole) throws Exception {
+        filter(cachedFilter, blackhole);
+    }
+
+    @Benchmark
+    public void signatureVerification(Blackhole blackhole) throws Exception {
+        filter(uncachedFilter, blackhole);
+    }
+
+    private void filter(AuthTokenFilter filter, Blackhole blackhole) throws Exception {
+        // A fresh request each time; OncePerRequestFilter marks requests it has seen
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items");
+        request.addHeader("Authorization", authorization);
+        FilterChain chain = (req, res) -> blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static AuthTokenFilter newFilter(JwtUtils jwtUtils, TokenVersionService tokenVersionService,
+                                             VerifiedTokenCache verifiedTokenCache) {
+        AuthTokenFilter filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "tokenVersionService", tokenVersionService);
+        ReflectionTestUtils.setField(filter, "verifiedTokenCache", verifiedTokenCache);
+        return filter;
+    }
+
+    private static VerifiedTokenCache newVerifiedTokenCache(long maxSize) {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "maxSize", maxSize);
+        cache.init();
+        return cache;
+    }
+
+    private static TokenVersionService newTokenVersionService() {
+        UserRepository.TokenState state = new UserRepository.TokenState() {
+            @Override
+            public Integer getTokenVersion() {
+                return 0;
+            }
+
+            @Override
+            public boolean isActive() {
+                return true;
+            }
+        };
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findTokenStateById")) {
+                        return Optional.of(state);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        TokenVersionService service = new TokenVersionService();
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(service, "maxSize", 100000L);
+        service.init();
+        return service;
+    }
+}
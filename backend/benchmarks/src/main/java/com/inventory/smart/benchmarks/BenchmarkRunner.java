@@ -0,0 +1,29 @@
+package com.inventory.smart.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar. Delegates to the JMH command line, but writes results
+ * as JSON to target/jmh-result.json unless a result format or file is given, so every
+ * run leaves a machine-readable record that can be compared against a baseline.
+ */
+public class BenchmarkRunner {
+    static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.add("-rf");
+            arguments.add("json");
+        }
+        if (!arguments.contains("-rff")) {
+            arguments.add("-rff");
+            arguments.add(DEFAULT_RESULT_FILE);
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,84 @@
+package com.inventory.smart.benchmarks;
+
+import com.inventory.smart.controller.TransactionController;
+import com.inventory.smart.dto.CategoryDTO;
+import com.inventory.smart.dto.TransactionDTO;
+import com.inventory.smart.model.Category;
+import com.inventory.smart.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping as done by the transaction and category list endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DtoConversionBenchmark {
+    // convertToDTO is a private controller helper; a constant method handle is inlined like a direct call
+    private static final MethodHandle CONVERT_TO_DTO = convertToDtoHandle();
+
+    @Param({"1", "1000"})
+    private int size;
+
+    private TransactionController controller;
+    private List<Transaction> transactions;
+    private List<Category> categories;
+
+    @Setup
+    public void setUp() {
+        controller = new TransactionController();
+        transactions = Fixtures.transactions(size);
+        categories = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            categories.add(Fixtures.category(i));
+        }
+    }
+
+    @Benchmark
+    public List<TransactionDTO> transactionConvertToDto() throws Throwable {
+        List<TransactionDTO> dtos = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            dtos.add((TransactionDTO) CONVERT_TO_DTO.invokeExact(controller, transaction));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<CategoryDTO> categoryFromCategory() {
+        List<CategoryDTO> dtos = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            dtos.add(CategoryDTO.fromCategory(category, 42));
+        }
+        return dtos;
+    }
+
+    private static MethodHandle convertToDtoHandle() {
+        try {
+            return MethodHandles.privateLookupIn(TransactionController.class, MethodHandles.lookup())
+                    .findVirtual(TransactionController.class, "convertToDTO",
+                            MethodType.methodType(TransactionDTO.class, Transaction.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("TransactionController.convertToDTO not found", e);
+        }
+    }
+}
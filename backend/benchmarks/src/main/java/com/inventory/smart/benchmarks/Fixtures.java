@@ -0,0 +1,127 @@
+package com.inventory.smart.benchmarks;
+
+import com.inventory.smart.model.Category;
+import com.inventory.smart.model.Item;
+import com.inventory.smart.model.Order;
+import com.inventory.smart.model.OrderItem;
+import com.inventory.smart.model.Transaction;
+import com.inventory.smart.model.User;
+import com.inventory.smart.security.UserDetailsImpl;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Representative entities shaped like what the controllers load and serialize.
+ */
+final class Fixtures {
+    // Same value as app.jwt.secret in application.properties
+    static final String JWT_SECRET = "YourJWTSecretKeyHereMakeItLongAndSecureForProductionUse";
+    static final int JWT_EXPIRATION_MS = 86400000;
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 9, 30);
+
+    private Fixtures() {
+    }
+
+    static UserDetailsImpl principal() {
+        return new UserDetailsImpl(1L, "admin", "admin@example.com", "System Administrator", null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_EMPLOYEE")), 0);
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+        user.setEmail("admin@example.com");
+        user.setFullName("System Administrator");
+        return user;
+    }
+
+    static Category category(long id) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName("Category " + id);
+        category.setDescription("Electronic devices and components");
+        category.setActive(true);
+        category.setCreatedBy("System");
+        category.setCreatedAt(CREATED_AT);
+        category.setUpdatedAt(CREATED_AT);
+        return category;
+    }
+
+    static Item item(long id) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Widget " + id);
+        item.setDescription("A general purpose widget used across several product lines");
+        item.setSku("SKU-" + id);
+        item.setCategory(category(1 + id % 10));
+        item.setCurrentStock((int) (id % 200));
+        item.setMinimumStock(20);
+        item.setCostPrice(new BigDecimal("12.50"));
+        item.setSellingPrice(new BigDecimal("19.99"));
+        item.setLocation("A" + (id % 40));
+        item.setSupplier("Acme Supplies");
+        item.setExpiryDate(LocalDate.of(2025, 6, 30));
+        item.setActive(true);
+        item.setCreatedBy("admin");
+        item.setCreatedAt(CREATED_AT);
+        item.setUpdatedAt(CREATED_AT);
+        return item;
+    }
+
+    static List<Item> items(int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            items.add(item(i));
+        }
+        return items;
+    }
+
+    static Order order(long id, int lines) {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderNumber("SO-" + id);
+        order.setOrderType(Order.OrderType.SALE);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setCustomer("Globex Corporation");
+        order.setNotes("Deliver to loading bay 3");
+        order.setCreatedBy("admin");
+        order.setCreatedAt(CREATED_AT);
+        order.setUpdatedAt(CREATED_AT);
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 1; i <= lines; i++) {
+            OrderItem line = new OrderItem();
+            line.setId(id * 100 + i);
+            line.setOrder(order);
+            line.setItem(item(i));
+            line.setQuantity(i);
+            line.setUnitPrice(new BigDecimal("19.99"));
+            line.setTotalPrice(line.getUnitPrice().multiply(BigDecimal.valueOf(i)));
+            order.getOrderItems().add(line);
+            total = total.add(line.getTotalPrice());
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+
+    static List<Transaction> transactions(int count) {
+        User user = user();
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Transaction transaction = new Transaction(item(1 + i % 50), user, 1 + i % 7,
+                    i % 3 == 0 ? Transaction.TransactionType.STOCK_OUT : Transaction.TransactionType.STOCK_IN,
+                    "Order SO-" + i);
+            transaction.setId((long) i);
+            transaction.setCreatedAt(CREATED_AT.plusMinutes(i));
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,75 @@
+package com.inventory.smart.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inventory.smart.model.Item;
+import com.inventory.smart.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization with an ObjectMapper configured like Spring Boot's default one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JsonSerializationBenchmark {
+    private ObjectWriter writer;
+    private Item item;
+    private Order order;
+
+    @State(Scope.Benchmark)
+    public static class ItemList {
+        @Param({"100", "1000", "10000"})
+        private int size;
+
+        private List<Item> items;
+
+        @Setup
+        public void setUp() {
+            items = Fixtures.items(size);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = mapper.writer();
+        item = Fixtures.item(1);
+        order = Fixtures.order(1, 20);
+    }
+
+    @Benchmark
+    public byte[] item() throws Exception {
+        return writer.writeValueAsBytes(item);
+    }
+
+    @Benchmark
+    public byte[] orderWithLines() throws Exception {
+        return writer.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] itemList(ItemList list) throws Exception {
+        return writer.writeValueAsBytes(list.items);
+    }
+}
@@ -0,0 +1,73 @@
+package com.inventory.smart.benchmarks;
+
+import com.inventory.smart.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JwtUtilsBenchmark {
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = newJwtUtils();
+        authentication = new UsernamePasswordAuthenticationToken(Fixtures.principal(), null,
+                Fixtures.principal().getAuthorities());
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+
+    static JwtUtils newJwtUtils() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", Fixtures.JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", Fixtures.JWT_EXPIRATION_MS);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtUtils.parseClaims(token);
+    }
+
+    @Benchmark
+    public String parseUserName() {
+        return jwtUtils.getUserNameFromJwtToken(token);
+    }
+
+    @Benchmark
+    public List<String> parseRoles() {
+        return jwtUtils.getRolesFromJwtToken(token);
+    }
+}
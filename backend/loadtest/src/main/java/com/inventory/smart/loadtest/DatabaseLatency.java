@@ -0,0 +1,63 @@
+package com.inventory.smart.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Set;
+
+/**
+ * Adds a fixed delay to every statement the embedded server prepares, so the in-memory
+ * database behaves like one across a network. The delay is spent holding the pooled
+ * connection and blocking the calling thread, as a real round trip would.
+ */
+class DatabaseLatency implements BeanPostProcessor {
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    private final long delayMillis;
+
+    DatabaseLatency(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? delayed(connection) : result;
+            });
+        }
+        return bean;
+    }
+
+    private Connection delayed(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            if (STATEMENT_FACTORIES.contains(method.getName())) {
+                Thread.sleep(delayMillis);
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private interface Handler<T> {
+        Object handle(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
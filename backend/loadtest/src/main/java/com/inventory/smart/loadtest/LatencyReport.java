@@ -0,0 +1,160 @@
+package com.inventory.smart.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms (microseconds) and error counts for one phase of a run.
+ */
+class LatencyReport {
+    // Up to one minute at three significant digits
+    private static final long HIGHEST_TRACKABLE_MICROS = 60_000_000L;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private double elapsedSeconds;
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long latencyMicros, boolean success) {
+        recorders.get(operation).recordValue(Math.min(Math.max(latencyMicros, 1), HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    void finish(double elapsedSeconds) {
+        this.elapsedSeconds = elapsedSeconds;
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+    }
+
+    Map<String, Object> summary() {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        histograms.forEach((operation, histogram) -> {
+            if (histogram.getTotalCount() == 0) {
+                return;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", histogram.getTotalCount());
+            stats.put("errors", errors.get(operation).sum());
+            stats.put("throughput", round(histogram.getTotalCount() / elapsedSeconds));
+            stats.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+            stats.put("p95Ms", millis(histogram.getValueAtPercentile(95)));
+            stats.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+            stats.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+            stats.put("maxMs", millis(histogram.getMaxValue()));
+            operations.put(operation.label(), stats);
+        });
+        return operations;
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-12s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        summary().forEach((label, value) -> {
+            Map<?, ?> stats = (Map<?, ?>) value;
+            out.printf("%-12s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", label,
+                    stats.get("requests"), stats.get("errors"), stats.get("throughput"), stats.get("p50Ms"),
+                    stats.get("p95Ms"), stats.get("p99Ms"), stats.get("p999Ms"), stats.get("maxMs"));
+        });
+    }
+
+    /**
+     * Writes summary.json plus one percentile distribution (.hgrm, in milliseconds) per
+     * operation, which HdrHistogram's plotter can chart directly.
+     */
+    void write(Path outputDir, Map<String, Object> config) throws IOException {
+        Files.createDirectories(outputDir);
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            if (entry.getValue().getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(
+                    outputDir.resolve(entry.getKey().label() + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        writeJson(outputDir.resolve("summary.json"), config);
+    }
+
+    void writeJson(Path file, Map<String, Object> config) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("config", config);
+        document.put("operations", summary());
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), document);
+    }
+
+    /**
+     * Compares against a summary saved by an earlier run. An operation regresses when its
+     * p99 grows, or its throughput drops, by more than the tolerance.
+     */
+    List<String> regressionsAgainst(Path baselineFile, double tolerance) throws IOException {
+        JsonNode baselineOperations = new ObjectMapper().readTree(baselineFile.toFile()).path("operations");
+
+        List<String> regressions = new ArrayList<>();
+        summary().forEach((label, value) -> {
+            JsonNode previous = baselineOperations.get(label);
+            if (previous == null) {
+                return;
+            }
+            Map<?, ?> current = (Map<?, ?>) value;
+            double p99 = ((Number) current.get("p99Ms")).doubleValue();
+            double previousP99 = previous.path("p99Ms").asDouble();
+            if (p99 > previousP99 * (1 + tolerance)) {
+                regressions.add(String.format("%s: p99 %.2f ms vs baseline %.2f ms", label, p99, previousP99));
+            }
+            double throughput = ((Number) current.get("throughput")).doubleValue();
+            double previousThroughput = previous.path("throughput").asDouble();
+            if (throughput < previousThroughput * (1 - tolerance)) {
+                regressions.add(String.format("%s: %.1f req/s vs baseline %.1f req/s", label, throughput,
+                        previousThroughput));
+            }
+        });
+        return regressions;
+    }
+
+    // Server profiles are left out so one server mode can be compared against another
+    static boolean sameConfig(Path baselineFile, Map<String, Object> config) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode current = objectMapper.valueToTree(config);
+        JsonNode baseline = objectMapper.readTree(baselineFile.toFile()).path("config");
+        if (current instanceof ObjectNode currentObject && baseline instanceof ObjectNode baselineObject) {
+            currentObject.remove("profiles");
+            baselineObject.remove("profiles");
+        }
+        return current.equals(baseline);
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
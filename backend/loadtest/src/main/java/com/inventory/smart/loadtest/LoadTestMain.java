@@ -0,0 +1,164 @@
+package com.inventory.smart.loadtest;
+
+import com.inventory.smart.SmartInventoryApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the application on the embedded loadtest profile plus any --profiles (or targets
+ * a running server with --target), seeds items, then drives the operation mix from
+ * --concurrency workers. --db-latency-ms delays every embedded database statement to
+ * model a remote database.
+ * Without --rate each worker sends its next request as soon as the previous one returns;
+ * with --rate the workers are paced to that total request rate and latency is measured
+ * from each request's scheduled start, so server stalls are not hidden by the pacing.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.target();
+        if (baseUrl == null) {
+            List<String> profiles = new ArrayList<>(List.of("loadtest"));
+            profiles.addAll(options.profiles());
+            SpringApplicationBuilder builder = new SpringApplicationBuilder(SmartInventoryApplication.class)
+                    .profiles(profiles.toArray(new String[0]));
+            if (options.dbLatencyMs() > 0) {
+                builder.initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new DatabaseLatency(options.dbLatencyMs())));
+            }
+            context = builder.run("--server.port=0");
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port + context.getEnvironment().getProperty("server.servlet.context-path", "");
+        }
+
+        int exitCode;
+        try {
+            exitCode = run(options, baseUrl);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(LoadTestOptions options, String baseUrl) throws Exception {
+        Workload workload = new Workload(baseUrl);
+        workload.login(options.username(), options.password());
+
+        System.out.printf("Seeding %d items at %s%n", options.items(), baseUrl);
+        workload.seed(options.items(), options.concurrency());
+
+        if (options.warmupSeconds() > 0) {
+            System.out.printf("Warming up for %d s%n", options.warmupSeconds());
+            runPhase(workload, options, options.warmupSeconds());
+        }
+
+        System.out.printf("Measuring for %d s with %d workers%s%n", options.durationSeconds(), options.concurrency(),
+                options.rate() > 0 ? " at " + options.rate() + " req/s" : "");
+        LatencyReport report = runPhase(workload, options, options.durationSeconds());
+
+        report.print(System.out);
+        report.write(options.outputDir(), options.describe());
+        System.out.println("Histograms and summary written to " + options.outputDir().toAbsolutePath());
+
+        if (options.saveBaseline() != null) {
+            report.writeJson(options.saveBaseline(), options.describe());
+            System.out.println("Baseline saved to " + options.saveBaseline().toAbsolutePath());
+        }
+
+        if (options.baseline() != null && Files.exists(options.baseline())) {
+            if (!LatencyReport.sameConfig(options.baseline(), options.describe())) {
+                System.out.println("Warning: the baseline was recorded with different settings; "
+                        + "throughput and latency may not be comparable");
+            }
+            List<String> regressions = report.regressionsAgainst(options.baseline(), options.tolerance());
+            if (!regressions.isEmpty()) {
+                System.out.printf("Regressions against %s (tolerance %.0f%%):%n", options.baseline(),
+                        options.tolerance() * 100);
+                regressions.forEach(regression -> System.out.println("  " + regression));
+                return 1;
+            }
+            System.out.println("No regressions against " + options.baseline());
+        }
+        return 0;
+    }
+
+    private static LatencyReport runPhase(Workload workload, LoadTestOptions options, int seconds)
+            throws InterruptedException {
+        LatencyReport report = new LatencyReport();
+        Operation[] schedule = schedule(options);
+        int workers = options.concurrency();
+        // Each worker's share of the target rate; zero means closed loop
+        long intervalNanos = options.rate() > 0 ? TimeUnit.SECONDS.toNanos(1) * workers / options.rate() : 0;
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        for (int worker = 0; worker < workers; worker++) {
+            long firstStart = start + intervalNanos * worker / workers;
+            executor.execute(() -> drive(workload, schedule, report, firstStart, intervalNanos, end));
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(seconds + 120L, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        report.finish((System.nanoTime() - start) / 1e9);
+        return report;
+    }
+
+    private static void drive(Workload workload, Operation[] schedule, LatencyReport report, long firstStart,
+                              long intervalNanos, long end) {
+        long intended = firstStart;
+        while (true) {
+            long now = System.nanoTime();
+            if (intervalNanos == 0) {
+                intended = now;
+            } else if (intended > now) {
+                LockSupport.parkNanos(intended - now);
+            }
+            if (intended >= end) {
+                return;
+            }
+
+            Operation operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+            boolean success;
+            try {
+                int status = workload.execute(operation);
+                success = status >= 200 && status < 300;
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            report.record(operation, (System.nanoTime() - intended) / 1000, success);
+            intended += intervalNanos;
+        }
+    }
+
+    // One slot per unit of weight, so a uniform pick follows the mix
+    private static Operation[] schedule(LoadTestOptions options) {
+        List<Operation> slots = new ArrayList<>();
+        options.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        return slots.toArray(new Operation[0]);
+    }
+}
@@ -0,0 +1,102 @@
+package com.inventory.smart.loadtest;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, given as --name=value.
+ */
+record LoadTestOptions(String target, String username, String password, int concurrency, int warmupSeconds, int durationSeconds, int rate,
+                       int items, Map<Operation, Integer> mix, Path outputDir, Path baseline,
+                       Path saveBaseline, double tolerance, List<String> profiles, int dbLatencyMs) {
+
+    static final String DEFAULT_MIX = "sku=40,transaction=20,order=10,items=15,categories=10,alerts=5";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                values.remove("target"),
+                values.getOrDefault("username", "admin"),
+                values.getOrDefault("password", "admin123"),
+                Integer.parseInt(values.getOrDefault("concurrency", "16")),
+                Integer.parseInt(values.getOrDefault("warmup-seconds", "15")),
+                Integer.parseInt(values.getOrDefault("duration-seconds", "60")),
+                Integer.parseInt(values.getOrDefault("rate", "0")),
+                Integer.parseInt(values.getOrDefault("items", "2000")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Path.of(values.getOrDefault("output-dir", "target/loadtest")),
+                values.containsKey("baseline") ? Path.of(values.get("baseline")) : null,
+                values.containsKey("save-baseline") ? Path.of(values.get("save-baseline")) : null,
+                Double.parseDouble(values.getOrDefault("tolerance", "0.10")),
+                parseProfiles(values.getOrDefault("profiles", "")),
+                Integer.parseInt(values.getOrDefault("db-latency-ms", "0")));
+
+        for (String known : new String[]{"username", "password", "concurrency", "warmup-seconds", "duration-seconds", "rate", "items",
+                "mix", "output-dir", "baseline", "save-baseline", "tolerance", "profiles", "db-latency-ms"}) {
+            values.remove(known);
+        }
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.concurrency < 1 || options.durationSeconds < 1 || options.items < 1) {
+            throw new IllegalArgumentException("concurrency, duration-seconds and items must be positive");
+        }
+        if (options.target != null && (!options.profiles.isEmpty() || options.dbLatencyMs > 0)) {
+            throw new IllegalArgumentException("profiles and db-latency-ms only apply to the embedded server");
+        }
+        return options;
+    }
+
+    private static List<String> parseProfiles(String profiles) {
+        return Arrays.stream(profiles.split(","))
+                .map(String::trim)
+                .filter(profile -> !profile.isEmpty())
+                .toList();
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.byName(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix must give at least one operation a positive weight");
+        }
+        return weights;
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("target", target != null ? target : "embedded");
+        description.put("concurrency", concurrency);
+        description.put("warmupSeconds", warmupSeconds);
+        description.put("durationSeconds", durationSeconds);
+        description.put("rate", rate);
+        description.put("items", items);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((operation, weight) -> weights.put(operation.label(), weight));
+        description.put("mix", weights);
+        description.put("profiles", profiles);
+        description.put("dbLatencyMs", dbLatencyMs);
+        return description;
+    }
+}
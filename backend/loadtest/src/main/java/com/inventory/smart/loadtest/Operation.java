@@ -0,0 +1,32 @@
+package com.inventory.smart.loadtest;
+
+/**
+ * The request types in the workload mix.
+ */
+enum Operation {
+    SKU_LOOKUP("sku"),
+    CREATE_TRANSACTION("transaction"),
+    CREATE_ORDER("order"),
+    ITEM_LIST("items"),
+    CATEGORY_LIST("categories"),
+    ALERT_GENERATION("alerts");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    static Operation byName(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in mix: " + label);
+    }
+}
@@ -0,0 +1,183 @@
+package com.inventory.smart.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeds the catalogue through the API and issues the requests for each {@link Operation}.
+ */
+class Workload {
+    private static final int CATEGORY_COUNT = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong orderSequence = new AtomicLong();
+    private String authorization;
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<String> skus = new ArrayList<>();
+
+    Workload(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    void login(String username, String password) throws IOException, InterruptedException {
+        Map<String, Object> body = Map.of("username", username, "password", password);
+        HttpResponse<String> response = httpClient.send(post("/auth/signin", body, false),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with HTTP " + response.statusCode() + ": " + response.body());
+        }
+        authorization = "Bearer " + objectMapper.readTree(response.body()).get("accessToken").asText();
+    }
+
+    /**
+     * Creates the items every operation draws from. Stock levels straddle the minimum so
+     * alert generation has work to do.
+     */
+    void seed(int count, int concurrency) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<JsonNode>> created = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("name", "Load test item " + i);
+                item.put("sku", "LT-" + runId + "-" + i);
+                item.put("category", Map.of("id", 1 + i % CATEGORY_COUNT));
+                item.put("currentStock", 20 + (i * 37) % 200);
+                item.put("minimumStock", 40);
+                item.put("costPrice", new BigDecimal("12.50"));
+                item.put("sellingPrice", new BigDecimal("19.99"));
+                item.put("location", "A" + i % 40);
+                HttpRequest request = post("/items", item, true);
+                created.add(executor.submit(() -> {
+                    // H2 occasionally hands out a duplicate identity under concurrent inserts; retry those
+                    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                    for (int attempt = 1; attempt < 3 && response.statusCode() >= 500; attempt++) {
+                        response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                    }
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode()
+                                + ": " + response.body());
+                    }
+                    return objectMapper.readTree(response.body());
+                }));
+            }
+            for (Future<JsonNode> future : created) {
+                JsonNode item = future.get();
+                itemIds.add(item.get("id").asLong());
+                skus.add(item.get("sku").asText());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sends one request and returns its HTTP status.
+     */
+    int execute(Operation operation) throws IOException, InterruptedException {
+        HttpRequest request = switch (operation) {
+            case SKU_LOOKUP -> get("/items/sku/" + randomSku());
+            case CREATE_TRANSACTION -> post("/api/transactions", transaction(), true);
+            case CREATE_ORDER -> post("/orders", order(), true);
+            case ITEM_LIST -> get("/items/page?size=50");
+            case CATEGORY_LIST -> get("/categories");
+            case ALERT_GENERATION -> post("/alerts/generate", Map.of(), true);
+        };
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private Map<String, Object> transaction() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> transaction = new LinkedHashMap<>();
+        transaction.put("itemId", randomItemId());
+        // Mostly receipts so stock does not drain over a long run
+        boolean stockOut = random.nextInt(3) == 0;
+        transaction.put("type", stockOut ? "STOCK_OUT" : "STOCK_IN");
+        transaction.put("quantity", stockOut ? 1 : 1 + random.nextInt(5));
+        transaction.put("notes", "load test");
+        return transaction;
+    }
+
+    private Map<String, Object> order() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int lineCount = 1 + random.nextInt(3);
+        List<Map<String, Object>> lines = new ArrayList<>(lineCount);
+        BigDecimal total = BigDecimal.ZERO;
+        int first = random.nextInt(itemIds.size());
+        for (int i = 0; i < lineCount; i++) {
+            int quantity = 1 + random.nextInt(10);
+            BigDecimal unitPrice = new BigDecimal("12.50");
+            BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("item", Map.of("id", itemIds.get((first + i) % itemIds.size())));
+            line.put("quantity", quantity);
+            line.put("unitPrice", unitPrice);
+            line.put("totalPrice", lineTotal);
+            lines.add(line);
+            total = total.add(lineTotal);
+        }
+
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("orderNumber", "LT-" + runId + "-" + orderSequence.incrementAndGet());
+        // Purchases only, so orders never fail for lack of stock
+        order.put("orderType", "PURCHASE");
+        order.put("status", "PENDING");
+        order.put("supplier", "Load Test Supplies");
+        order.put("totalAmount", total);
+        order.put("orderItems", lines);
+        return order;
+    }
+
+    private Long randomItemId() {
+        return itemIds.get(ThreadLocalRandom.current().nextInt(itemIds.size()));
+    }
+
+    private String randomSku() {
+        return skus.get(ThreadLocalRandom.current().nextInt(skus.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", authorization)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Object body, boolean authenticated) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30));
+        if (authenticated) {
+            builder.header("Authorization", authorization);
+        }
+        try {
+            return builder.POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize request body", e);
+        }
+    }
+}
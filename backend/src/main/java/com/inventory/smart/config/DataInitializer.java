@@ -6,6 +6,7 @@ import com.inventory.smart.model.Role;
 import com.inventory.smart.model.Role.ERole;
 import com.inventory.smart.model.User;
 import com.inventory.smart.repository.CategoryRepository;
+import com.inventory.smart.repository.OrderRepository;
 import com.inventory.smart.repository.RoleRepository;
 import com.inventory.smart.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,9 @@ public class DataInitializer implements CommandLineRunner {
     
     @Autowired
     private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private OrderRepository orderRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -43,6 +47,9 @@ public class DataInitializer implements CommandLineRunner {
         
         // Initialize categories if they don't exist
         initCategories();
+        
+        // Fill order search keys for orders created before they existed
+        backfillOrderSearchKeys();
     }
 
     private void initRoles() {
@@ -102,6 +109,13 @@ public class DataInitializer implements CommandLineRunner {
         }
     }
     
+    private void backfillOrderSearchKeys() {
+        int updated = orderRepository.backfillSearchKeys();
+        if (updated > 0) {
+            System.out.println("Order search keys backfilled for " + updated + " orders");
+        }
+    }
+    
     private Category createCategory(String name, String description) {
         Category category = new Category();
         category.setName(name);
@@ -0,0 +1,24 @@
+package com.inventory.smart.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements one request to the annotated handler may issue,
+ * counting everything executed on the request thread. Handlers without the annotation
+ * get {@code app.query-budget.default}; a method-level value overrides the class-level one.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+
+    /**
+     * Statements allowed on top of {@link #value} for each unit of work the handler reports
+     * with {@link SqlStatementRecorder#addUnits}, for writes that issue statements per order,
+     * line or item in the request.
+     */
+    int perUnit() default 0;
+}
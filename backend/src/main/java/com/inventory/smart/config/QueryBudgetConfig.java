@@ -0,0 +1,54 @@
+package com.inventory.smart.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wires per-request SQL counting. With {@code app.query-budget.mode=off} nothing is
+ * registered; {@code warn} logs budget overruns and repeated statements; {@code strict}
+ * additionally fails the request on the first statement over its budget.
+ */
+@Configuration
+public class QueryBudgetConfig implements WebMvcConfigurer {
+
+    @Value("${app.query-budget.mode:warn}")
+    private String mode;
+
+    @Value("${app.query-budget.default:10}")
+    private int defaultBudget;
+
+    @Value("${app.query-budget.repeat-threshold:3}")
+    private int repeatThreshold;
+
+    @Bean
+    public SqlStatementRecorder sqlStatementRecorder() {
+        SqlStatementRecorder recorder = new SqlStatementRecorder();
+        recorder.setStrict("strict".equalsIgnoreCase(mode));
+        return recorder;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementRecorderCustomizer(SqlStatementRecorder recorder) {
+        return properties -> {
+            if (isEnabled()) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, recorder);
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (isEnabled()) {
+            registry.addInterceptor(new QueryBudgetInterceptor(sqlStatementRecorder(), defaultBudget, repeatThreshold));
+        }
+    }
+
+    private boolean isEnabled() {
+        return "warn".equalsIgnoreCase(mode) || "strict".equalsIgnoreCase(mode);
+    }
+}
@@ -0,0 +1,90 @@
+package com.inventory.smart.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Opens a {@link SqlStatementRecorder} recording around each controller call and reports
+ * requests that go over their {@link QueryBudget} or run the same select repeatedly,
+ * which is almost always an N+1 load.
+ */
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+    private static final int MAX_SQL_LENGTH = 200;
+
+    private final SqlStatementRecorder recorder;
+    private final int defaultBudget;
+    private final int repeatThreshold;
+
+    public QueryBudgetInterceptor(SqlStatementRecorder recorder, int defaultBudget, int repeatThreshold) {
+        this.recorder = recorder;
+        this.defaultBudget = defaultBudget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+            QueryBudget budget = budgetFor(handlerMethod);
+            if (budget != null) {
+                recorder.start(endpoint, budget.value(), budget.perUnit());
+            } else {
+                recorder.start(endpoint, defaultBudget);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // The rest of the work happens on another thread, so this recording would be incomplete
+        recorder.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SqlStatementRecorder.Recording recording = recorder.stop();
+        if (recording == null) {
+            return;
+        }
+        if (recording.isOverBudget()) {
+            logger.warn("{} issued {} SQL statements, budget is {}",
+                    recording.getEndpoint(), recording.getTotal(), recording.getBudget());
+        }
+        for (Map.Entry<String, Integer> entry : recording.getStatements().entrySet()) {
+            // Repeated writes are per-row DML; repeated reads are the lazy-load pattern worth flagging
+            if (entry.getValue() >= repeatThreshold && isSelect(entry.getKey())) {
+                logger.warn("{} ran the same statement {} times (possible N+1): {}",
+                        recording.getEndpoint(), entry.getValue(), abbreviate(entry.getKey()));
+            }
+        }
+    }
+
+    private QueryBudget budgetFor(HandlerMethod handlerMethod) {
+        QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+        if (budget == null) {
+            budget = handlerMethod.getBeanType().getAnnotation(QueryBudget.class);
+        }
+        return budget;
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+    }
+
+    private static String abbreviate(String sql) {
+        String singleLine = sql.replaceAll("\\s+", " ").trim();
+        return singleLine.length() > MAX_SQL_LENGTH ? singleLine.substring(0, MAX_SQL_LENGTH) + "..." : singleLine;
+    }
+}
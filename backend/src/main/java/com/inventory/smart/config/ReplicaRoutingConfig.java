@@ -0,0 +1,76 @@
+package com.inventory.smart.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write splitting, active once app.datasource.replica.jdbc-url is set. The primary pool
+ * is built from spring.datasource.* as usual and the replica pool from app.datasource.replica.*
+ * (Hikari property names). The application DataSource routes between them per transaction.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "jdbc-url")
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+
+    @Value("${app.replica-routing.sticky-seconds:5}")
+    private long stickySeconds;
+
+    @Value("${app.replica-routing.sticky-max-size:100000}")
+    private long stickyMaxSize;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Only for embedded replicas; a real replica gets its schema through replication
+    @Bean
+    @ConditionalOnProperty(prefix = "app.replica-routing", name = "schema-locations")
+    public DataSourceInitializer replicaSchemaInitializer(@Qualifier("replicaDataSource") DataSource replica,
+                                                          @Value("${app.replica-routing.schema-locations}") Resource[] scripts) {
+        DataSourceInitializer initializer = new DataSourceInitializer();
+        initializer.setDataSource(replica);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(scripts));
+        return initializer;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReplicaRoutingInterceptor(stickySeconds, stickyMaxSize));
+    }
+}
@@ -0,0 +1,45 @@
+package com.inventory.smart.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica when the current thread has been allowed to
+ * read from it, and everything else to the primary. Must sit behind a
+ * LazyConnectionDataSourceProxy so the target is picked at the first statement, once the
+ * transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Lets read-only transactions on this thread use the replica until {@link #clear()}.
+     */
+    public static void allowReplica() {
+        REPLICA_ALLOWED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        REPLICA_ALLOWED.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Boolean.TRUE.equals(REPLICA_ALLOWED.get())
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
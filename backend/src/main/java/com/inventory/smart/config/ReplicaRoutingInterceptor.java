@@ -0,0 +1,85 @@
+package com.inventory.smart.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.smart.security.UserDetailsImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Decides per request whether read-only transactions may use the replica. Only handlers
+ * declared {@code @Transactional(readOnly = true)} opt in, so cache loads and other reads
+ * that must see the latest state keep using the primary. A user who made a mutating request
+ * within the sticky window is kept on the primary too, so users always read their own writes.
+ */
+public class ReplicaRoutingInterceptor implements AsyncHandlerInterceptor {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReplicaRoutingInterceptor(long stickySeconds, long maxSize) {
+        recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(stickySeconds))
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = currentUserId();
+        if (isRead(request)) {
+            if (isReadOnlyHandler(handler) && (userId == null || recentWriters.getIfPresent(userId) == null)) {
+                ReplicaRoutingDataSource.allowReplica();
+            }
+        } else if (userId != null) {
+            // Marked up front too, since the client may see the response before afterCompletion runs
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ReplicaRoutingDataSource.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReplicaRoutingDataSource.clear();
+        Long userId = currentUserId();
+        if (!isRead(request) && userId != null) {
+            // The window runs from when the write finished
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    }
+
+    private static boolean isReadOnlyHandler(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(),
+                    Transactional.class);
+            return transactional != null && transactional.readOnly();
+        }
+        return false;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
@@ -3,6 +3,7 @@ package com.inventory.smart.config;
 import com.inventory.smart.security.AuthEntryPointJwt;
 import com.inventory.smart.security.AuthTokenFilter;
 import com.inventory.smart.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -65,11 +66,15 @@ public class SecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
-                auth.requestMatchers("/api/auth/**").permitAll()
+                // Streaming responses complete on an async dispatch; the request was authorized already
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                    .requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers("/auth/**").permitAll()
                     .requestMatchers("/api/test/**").permitAll()
                     .requestMatchers("/test/**").permitAll()
                     .requestMatchers("/error").permitAll()
+                    // Only reachable on the management port, which listens on localhost
+                    .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                     .requestMatchers("/", "/index.html", "/static/**", "/manifest.json", "/favicon.ico").permitAll()
                     .anyRequest().authenticated()
             );
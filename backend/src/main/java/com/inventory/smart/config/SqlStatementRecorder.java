@@ -0,0 +1,119 @@
+package com.inventory.smart.config;
+
+import com.inventory.smart.exception.QueryBudgetExceededException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate statement inspector that counts the SQL issued on the current thread while
+ * a recording is open. The web layer opens one recording per request; tests can do the
+ * same around any block of code with {@link #start} and {@link #stop}. Recordings nest:
+ * a statement counts towards every open one, so a test can wrap a whole request.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private volatile boolean strict;
+
+    public void setStrict(boolean strict) {
+        this.strict = strict;
+    }
+
+    /**
+     * Starts counting statements on this thread. A budget of zero or less means unlimited.
+     */
+    public void start(String endpoint, int budget) {
+        start(endpoint, budget, 0);
+    }
+
+    /**
+     * Starts counting with a budget that grows by perUnit for every unit reported through
+     * {@link #addUnits}.
+     */
+    public void start(String endpoint, int budget, int perUnit) {
+        CURRENT.set(new Recording(endpoint, budget, perUnit, CURRENT.get()));
+    }
+
+    /**
+     * Raises the innermost recording's budget by its per-unit allowance for each unit. Handlers
+     * call this with the size of the request before doing the work that scales with it.
+     */
+    public static void addUnits(int units) {
+        Recording recording = CURRENT.get();
+        if (recording != null && recording.budget > 0) {
+            recording.budget += units * recording.perUnit;
+        }
+    }
+
+    /**
+     * Ends the innermost recording on this thread and returns it, or null if none was open.
+     */
+    public Recording stop() {
+        Recording recording = CURRENT.get();
+        if (recording == null) {
+            return null;
+        }
+        if (recording.outer != null) {
+            CURRENT.set(recording.outer);
+        } else {
+            CURRENT.remove();
+        }
+        return recording;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        for (Recording recording = CURRENT.get(); recording != null; recording = recording.outer) {
+            recording.total++;
+            recording.statements.merge(sql, 1, Integer::sum);
+            if (strict && recording.budget > 0 && recording.total == recording.budget + 1) {
+                throw new QueryBudgetExceededException(recording.endpoint, recording.budget, sql);
+            }
+        }
+        return sql;
+    }
+
+    public static final class Recording {
+        private final String endpoint;
+        private int budget;
+        private final int perUnit;
+        private final Recording outer;
+        private final Map<String, Integer> statements = new LinkedHashMap<>();
+        private int total;
+
+        private Recording(String endpoint, int budget, int perUnit, Recording outer) {
+            this.endpoint = endpoint;
+            this.budget = budget;
+            this.perUnit = perUnit;
+            this.outer = outer;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public int getBudget() {
+            return budget;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public boolean isOverBudget() {
+            return budget > 0 && total > budget;
+        }
+
+        /**
+         * Distinct SQL strings in first-seen order, with how often each one ran.
+         */
+        public Map<String, Integer> getStatements() {
+            return Collections.unmodifiableMap(statements);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.inventory.smart.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Reports which threading model serves requests. Spring Boot silently falls back to
+ * platform threads when virtual threads are requested on a JVM older than 21.
+ */
+@Configuration
+public class ThreadingConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    @Autowired
+    private Environment environment;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreading() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            logger.info("Requests, async tasks and scheduled jobs run on virtual threads (experimental)");
+        } else if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            logger.warn("Virtual threads were requested but need Java 21 (running {}); using platform threads",
+                    Runtime.version().feature());
+        }
+    }
+}
@@ -1,18 +1,21 @@
 package com.inventory.smart.controller;
 
+import com.inventory.smart.config.QueryBudget;
 import com.inventory.smart.dto.CategoryDTO;
 import com.inventory.smart.dto.MessageResponse;
 import com.inventory.smart.exception.ResourceNotFoundException;
 import com.inventory.smart.model.Category;
 import com.inventory.smart.repository.CategoryRepository;
-import com.inventory.smart.repository.ItemRepository;
+import com.inventory.smart.service.CategoryItemCounts;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -23,18 +26,17 @@ public class CategoryController {
     private CategoryRepository categoryRepository;
     
     @Autowired
-    private ItemRepository itemRepository;
+    private CategoryItemCounts categoryItemCounts;
     
+    @QueryBudget(2)
     @GetMapping
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public List<CategoryDTO> getAllCategories() {
         List<Category> categories = categoryRepository.findAll();
         
         return categories.stream()
-                .map(category -> {
-                    int itemCount = itemRepository.countByCategory_Id(category.getId());
-                    return CategoryDTO.fromCategory(category, itemCount);
-                })
+                .map(category -> CategoryDTO.fromCategory(category, categoryItemCounts.getCount(category.getId())))
                 .collect(Collectors.toList());
     }
     
@@ -44,7 +46,7 @@ public class CategoryController {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
         
-        int itemCount = itemRepository.countByCategory_Id(category.getId());
+        int itemCount = categoryItemCounts.getCount(category.getId());
         CategoryDTO categoryDTO = CategoryDTO.fromCategory(category, itemCount);
         
         return ResponseEntity.ok(categoryDTO);
@@ -52,14 +54,12 @@ public class CategoryController {
     
     @GetMapping("/search")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public List<CategoryDTO> searchCategories(@RequestParam String name) {
         List<Category> categories = categoryRepository.findByNameContainingIgnoreCase(name);
         
         return categories.stream()
-                .map(category -> {
-                    int itemCount = itemRepository.countByCategory_Id(category.getId());
-                    return CategoryDTO.fromCategory(category, itemCount);
-                })
+                .map(category -> CategoryDTO.fromCategory(category, categoryItemCounts.getCount(category.getId())))
                 .collect(Collectors.toList());
     }
     
@@ -96,7 +96,7 @@ public class CategoryController {
         category.setActive(categoryDetails.isActive());
         
         Category updatedCategory = categoryRepository.save(category);
-        int itemCount = itemRepository.countByCategory_Id(updatedCategory.getId());
+        int itemCount = categoryItemCounts.getCount(updatedCategory.getId());
         CategoryDTO categoryDTO = CategoryDTO.fromCategory(updatedCategory, itemCount);
         
         return ResponseEntity.ok(categoryDTO);
@@ -109,6 +109,19 @@ public class CategoryController {
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
         
         categoryRepository.delete(category);
+        categoryItemCounts.categoryRemoved(id);
         return ResponseEntity.ok(new MessageResponse("Category deleted successfully"));
     }
+    
+    @GetMapping("/counts/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> getItemCountStats() {
+        return categoryItemCounts.getStats();
+    }
+    
+    @PostMapping("/counts/recount")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> recountItems() {
+        return categoryItemCounts.recount();
+    }
 } 
\ No newline at end of file
@@ -1,18 +1,37 @@
 package com.inventory.smart.controller;
 
+import com.inventory.smart.config.QueryBudget;
+import com.inventory.smart.dto.CursorPage;
 import com.inventory.smart.dto.MessageResponse;
 import com.inventory.smart.exception.ResourceNotFoundException;
 import com.inventory.smart.model.Item;
 import com.inventory.smart.repository.CategoryRepository;
 import com.inventory.smart.repository.ItemRepository;
+import com.inventory.smart.service.CategoryItemCounts;
+import com.inventory.smart.service.ExpiryAlertScheduler;
+import com.inventory.smart.service.InventoryValuation;
+import com.inventory.smart.service.ItemLookupCache;
+import com.inventory.smart.service.ItemSearchIndex;
+import com.inventory.smart.service.ItemService;
+import com.inventory.smart.service.StockAlertEvaluator;
+import com.inventory.smart.service.StockHistoryService;
+import com.inventory.smart.service.StockService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -24,16 +43,75 @@ public class ItemController {
     @Autowired
     private CategoryRepository categoryRepository;
     
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    
+    @Autowired
+    private ItemLookupCache itemLookupCache;
+    
+    @Autowired
+    private CategoryItemCounts categoryItemCounts;
+    
+    @Autowired
+    private StockService stockService;
+    
+    @Autowired
+    private ItemService itemService;
+    
+    @Autowired
+    private StockAlertEvaluator stockAlertEvaluator;
+    
+    @Autowired
+    private ExpiryAlertScheduler expiryAlertScheduler;
+    
+    @Autowired
+    private StockHistoryService stockHistoryService;
+    
+    @Autowired
+    private InventoryValuation inventoryValuation;
+    
+    @Value("${app.items.page.default-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${app.items.page.max-size:200}")
+    private int maxPageSize;
+    
+    @Value("${app.items.list.max-results:1000}")
+    private int listMaxResults;
+    
+    /**
+     * Compatibility listing for callers that expect a plain array. The result is
+     * capped at app.items.list.max-results; when more rows exist the cursor for the
+     * next page of /items/page is returned in the X-Next-Cursor header.
+     */
+    @QueryBudget(2)
     @GetMapping
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
-    public List<Item> getAllItems() {
-        return itemRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Item>> getAllItems() {
+        return listResponse(fetchPage(null, "id", null, null, false, null, null, listMaxResults));
+    }
+    
+    @QueryBudget(2)
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
+    public CursorPage<Item> getItemsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "false") boolean lowStock,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        return fetchPage(cursor, sort, categoryId, active, lowStock, location, null, pageSize);
     }
     
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
     public ResponseEntity<Item> getItemById(@PathVariable Long id) {
-        Item item = itemRepository.findById(id)
+        Item item = itemLookupCache.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Item", "id", id));
         return ResponseEntity.ok(item);
     }
@@ -41,34 +119,88 @@ public class ItemController {
     @GetMapping("/sku/{sku}")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
     public ResponseEntity<Item> getItemBySku(@PathVariable String sku) {
-        Item item = itemRepository.findBySku(sku)
+        Item item = itemLookupCache.findBySku(sku)
                 .orElseThrow(() -> new ResourceNotFoundException("Item", "sku", sku));
         return ResponseEntity.ok(item);
     }
     
+    /**
+     * Capped like {@link #getAllItems}; the X-Next-Cursor header continues this listing
+     * when passed back as the cursor parameter.
+     */
+    @QueryBudget(2)
     @GetMapping("/category/{categoryId}")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
-    public List<Item> getItemsByCategory(@PathVariable Long categoryId) {
-        return itemRepository.findByCategory_Id(categoryId);
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Item>> getItemsByCategory(@PathVariable Long categoryId,
+                                                         @RequestParam(required = false) String cursor) {
+        return listResponse(fetchPage(cursor, "id", categoryId, null, false, null, null, listMaxResults));
     }
     
+    @QueryBudget(1)
     @GetMapping("/search")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
-    public List<Item> searchItems(@RequestParam String name) {
-        return itemRepository.findByNameContainingIgnoreCase(name);
+    public List<Item> searchItems(@RequestParam String name,
+                                  @RequestParam(defaultValue = "0") int page,
+                                  @RequestParam(defaultValue = "50") int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        List<Long> ids = itemSearchIndex.search(name, Math.max(page, 0), pageSize).stream()
+                .map(ItemSearchIndex.SearchHit::itemId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        // Keep the ranking order from the index
+        Map<Long, Item> byId = itemRepository.findWithCategoryByIdIn(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(item -> item != null)
+                .collect(Collectors.toList());
     }
     
+    @GetMapping("/search/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> getSearchIndexStats() {
+        return itemSearchIndex.getStats();
+    }
+    
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> getLookupCacheStats() {
+        return itemLookupCache.getStats();
+    }
+    
+    @GetMapping("/stock-engine/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> getStockEngineStats() {
+        return stockService.getEngineStats();
+    }
+    
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuildSearchIndex() {
+        itemSearchIndex.rebuild();
+        return ResponseEntity.ok(itemSearchIndex.getStats());
+    }
+    
+    @QueryBudget(2)
     @GetMapping("/low-stock")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
-    public List<Item> getLowStockItems() {
-        return itemRepository.findLowStockItems();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Item>> getLowStockItems(@RequestParam(required = false) String cursor) {
+        return listResponse(fetchPage(cursor, "id", null, true, true, null, null, listMaxResults));
     }
     
+    @QueryBudget(2)
     @GetMapping("/expiring")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
-    public List<Item> getExpiringItems(@RequestParam(defaultValue = "30") int days) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Item>> getExpiringItems(@RequestParam(defaultValue = "30") int days,
+                                                       @RequestParam(required = false) String cursor) {
         LocalDate expiryDate = LocalDate.now().plusDays(days);
-        return itemRepository.findItemsExpiringBefore(expiryDate);
+        return listResponse(fetchPage(cursor, "id", null, true, false, null, expiryDate, listMaxResults));
     }
     
     @PostMapping
@@ -86,6 +218,12 @@ public class ItemController {
         }
         
         Item savedItem = itemRepository.save(item);
+        stockHistoryService.itemCreated(savedItem);
+        itemSearchIndex.index(savedItem);
+        stockAlertEvaluator.itemChanged(savedItem.getId());
+        inventoryValuation.itemChanged(savedItem.getId());
+        expiryAlertScheduler.itemChanged(savedItem);
+        categoryItemCounts.itemAdded(categoryIdOf(savedItem));
         return ResponseEntity.ok(savedItem);
     }
     
@@ -106,21 +244,14 @@ public class ItemController {
                     .orElseThrow(() -> new ResourceNotFoundException("Category", "id", itemDetails.getCategory().getId()));
         }
         
-        item.setName(itemDetails.getName());
-        item.setDescription(itemDetails.getDescription());
-        item.setSku(itemDetails.getSku());
-        item.setCategory(itemDetails.getCategory());
-        item.setCurrentStock(itemDetails.getCurrentStock());
-        item.setMinimumStock(itemDetails.getMinimumStock());
-        item.setCostPrice(itemDetails.getCostPrice());
-        item.setSellingPrice(itemDetails.getSellingPrice());
-        item.setLocation(itemDetails.getLocation());
-        item.setSupplier(itemDetails.getSupplier());
-        item.setExpiryDate(itemDetails.getExpiryDate());
-        item.setImageUrl(itemDetails.getImageUrl());
-        item.setActive(itemDetails.isActive());
-        
-        Item updatedItem = itemRepository.save(item);
+        Long previousCategoryId = categoryIdOf(item);
+        Item updatedItem = itemService.updateItem(item, itemDetails);
+        itemSearchIndex.index(updatedItem);
+        itemLookupCache.invalidate(id);
+        stockAlertEvaluator.itemChanged(id);
+        inventoryValuation.itemChanged(id);
+        expiryAlertScheduler.itemChanged(updatedItem);
+        categoryItemCounts.itemMoved(previousCategoryId, categoryIdOf(updatedItem));
         return ResponseEntity.ok(updatedItem);
     }
     
@@ -130,7 +261,89 @@ public class ItemController {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Item", "id", id));
         
-        itemRepository.delete(item);
+        // Pending ledger records for the item reach the transactions table first, and none
+        // can be added until its counter is gone, so replication never refers to a deleted item
+        stockService.whileStockChangesPaused(() -> {
+            itemRepository.delete(item);
+            stockService.itemChanged(id);
+            return null;
+        });
+        itemSearchIndex.remove(id);
+        itemLookupCache.invalidate(id);
+        expiryAlertScheduler.itemRemoved(id);
+        inventoryValuation.itemRemoved(id);
+        categoryItemCounts.itemRemoved(categoryIdOf(item));
         return ResponseEntity.ok(new MessageResponse("Item deleted successfully"));
     }
-} 
\ No newline at end of file
+    
+    private CursorPage<Item> fetchPage(String cursor, String sort, Long categoryId, Boolean active,
+                                       boolean lowStock, String location, LocalDate expiresBy, int size) {
+        // Fetch one extra row to find out whether another page exists without a count query
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Item> items;
+        
+        if ("updatedAt".equals(sort)) {
+            LocalDateTime afterUpdatedAt = null;
+            Long afterId = null;
+            if (cursor != null) {
+                String[] parts = decodeCursor(cursor, 2);
+                try {
+                    afterUpdatedAt = LocalDateTime.parse(parts[0]);
+                    afterId = Long.valueOf(parts[1]);
+                } catch (DateTimeParseException | NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+            }
+            items = itemRepository.findPageOrderByUpdatedAt(afterUpdatedAt, afterId,
+                    categoryId, active, lowStock, location, expiresBy, limit);
+        } else if ("id".equals(sort)) {
+            Long afterId = null;
+            if (cursor != null) {
+                try {
+                    afterId = Long.valueOf(decodeCursor(cursor, 1)[0]);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+            }
+            items = itemRepository.findPageOrderById(afterId, categoryId, active, lowStock, location,
+                    expiresBy, limit);
+        } else {
+            throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+        
+        boolean hasMore = items.size() > size;
+        if (hasMore) {
+            items = items.subList(0, size);
+        }
+        
+        String nextCursor = null;
+        if (hasMore) {
+            Item last = items.get(items.size() - 1);
+            nextCursor = "updatedAt".equals(sort)
+                    ? CursorPage.encodeCursor(last.getUpdatedAt().toString(), last.getId().toString())
+                    : CursorPage.encodeCursor(last.getId().toString());
+        }
+        
+        return new CursorPage<>(items, items.size(), hasMore, nextCursor);
+    }
+    
+    private ResponseEntity<List<Item>> listResponse(CursorPage<Item> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.isHasMore()) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
+    
+    private Long categoryIdOf(Item item) {
+        return item.getCategory() != null ? item.getCategory().getId() : null;
+    }
+    
+    private String[] decodeCursor(String cursor, int expectedParts) {
+        String[] parts = CursorPage.decodeCursor(cursor);
+        if (parts.length != expectedParts) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return parts;
+    }
+}
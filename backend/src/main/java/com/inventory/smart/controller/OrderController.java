@@ -1,20 +1,37 @@
 package com.inventory.smart.controller;
 
+import com.inventory.smart.config.QueryBudget;
+import com.inventory.smart.config.SqlStatementRecorder;
+import com.inventory.smart.dto.BatchOrderResponse;
+import com.inventory.smart.dto.BatchOrderResult;
+import com.inventory.smart.dto.CursorPage;
 import com.inventory.smart.dto.MessageResponse;
 import com.inventory.smart.exception.ResourceNotFoundException;
-import com.inventory.smart.model.Item;
 import com.inventory.smart.model.Order;
 import com.inventory.smart.model.OrderItem;
-import com.inventory.smart.repository.ItemRepository;
 import com.inventory.smart.repository.OrderRepository;
+import com.inventory.smart.service.InventoryValuation;
+import com.inventory.smart.service.ItemLookupCache;
+import com.inventory.smart.service.OrderBatchService;
+import com.inventory.smart.service.OrderService;
+import com.inventory.smart.service.StockAlertEvaluator;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -24,14 +41,112 @@ public class OrderController {
     private OrderRepository orderRepository;
     
     @Autowired
-    private ItemRepository itemRepository;
+    private ItemLookupCache itemLookupCache;
     
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private OrderBatchService orderBatchService;
+    
+    @Autowired
+    private StockAlertEvaluator stockAlertEvaluator;
+    
+    @Autowired
+    private InventoryValuation inventoryValuation;
+    
+    @Value("${app.orders.batch.max-size:1000}")
+    private int maxBatchSize;
+    
+    @Value("${app.orders.page.default-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${app.orders.page.max-size:200}")
+    private int maxPageSize;
+    
+    @QueryBudget(1)
     @GetMapping
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+        return orderRepository.findAllWithItems();
+    }
+    
+    /**
+     * Combined order search. Every filter is optional; customer and supplier match
+     * case-insensitively on a name prefix. Results are keyset-paginated on
+     * (createdAt, id) in the requested direction.
+     */
+    @QueryBudget(2)
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
+    public CursorPage<Order> searchOrders(
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) Order.OrderType type,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String supplier,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        boolean newestFirst;
+        if ("desc".equalsIgnoreCase(direction)) {
+            newestFirst = true;
+        } else if ("asc".equalsIgnoreCase(direction)) {
+            newestFirst = false;
+        } else {
+            throw new IllegalArgumentException("Unsupported direction: " + direction);
+        }
+        
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null) {
+            String[] parts = CursorPage.decodeCursor(cursor);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            try {
+                afterCreatedAt = LocalDateTime.parse(parts[0]);
+                afterId = Long.valueOf(parts[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+        
+        // Fetch one extra row to find out whether another page exists without a count query
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        String customerPrefix = prefixPattern(customer);
+        String supplierPrefix = prefixPattern(supplier);
+        List<Object[]> keys = newestFirst
+                ? orderRepository.searchNewestFirst(afterCreatedAt, afterId, status, type, from, to,
+                        customerPrefix, supplierPrefix, limit)
+                : orderRepository.searchOldestFirst(afterCreatedAt, afterId, status, type, from, to,
+                        customerPrefix, supplierPrefix, limit);
+        
+        boolean hasMore = keys.size() > pageSize;
+        if (hasMore) {
+            keys = keys.subList(0, pageSize);
+        }
+        
+        List<Long> ids = keys.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+        Map<Long, Order> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            orderRepository.findWithItemsByIdIn(ids).forEach(order -> byId.put(order.getId(), order));
+        }
+        List<Order> orders = ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+        
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = keys.get(keys.size() - 1);
+            nextCursor = CursorPage.encodeCursor(last[1].toString(), last[0].toString());
+        }
+        return new CursorPage<>(orders, orders.size(), hasMore, nextCursor);
     }
     
+    @QueryBudget(2)
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
     public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
@@ -40,6 +155,7 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
     
+    @QueryBudget(2)
     @GetMapping("/number/{orderNumber}")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
     public ResponseEntity<Order> getOrderByNumber(@PathVariable String orderNumber) {
@@ -48,30 +164,35 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
     
+    @QueryBudget(1)
     @GetMapping("/type/{orderType}")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
     public List<Order> getOrdersByType(@PathVariable Order.OrderType orderType) {
         return orderRepository.findByOrderType(orderType);
     }
     
+    @QueryBudget(1)
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
     public List<Order> getOrdersByStatus(@PathVariable Order.OrderStatus status) {
         return orderRepository.findByStatus(status);
     }
     
+    @QueryBudget(1)
     @GetMapping("/customer")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
     public List<Order> getOrdersByCustomer(@RequestParam String customer) {
         return orderRepository.findByCustomerContainingIgnoreCase(customer);
     }
     
+    @QueryBudget(1)
     @GetMapping("/supplier")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
     public List<Order> getOrdersBySupplier(@RequestParam String supplier) {
         return orderRepository.findBySupplierContainingIgnoreCase(supplier);
     }
     
+    @QueryBudget(1)
     @GetMapping("/date-range")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
     public List<Order> getOrdersByDateRange(
@@ -80,41 +201,55 @@ public class OrderController {
         return orderRepository.findByCreatedAtBetween(startDate, endDate);
     }
     
+    // Per line: the stock update, its ledger entry and the line insert
+    @QueryBudget(value = 2, perUnit = 3)
     @PostMapping
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
     public ResponseEntity<?> createOrder(@Valid @RequestBody Order order) {
+        SqlStatementRecorder.addUnits(order.getOrderItems().size());
         if (orderRepository.existsByOrderNumber(order.getOrderNumber())) {
             return ResponseEntity
                     .badRequest()
                     .body(new MessageResponse("Error: Order number already exists!"));
         }
         
-        // Validate and update inventory for each order item
-        for (OrderItem orderItem : order.getOrderItems()) {
-            Item item = itemRepository.findById(orderItem.getItem().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Item", "id", orderItem.getItem().getId()));
-            
-            orderItem.setOrder(order);
-            
-            // Update inventory based on order type
-            if (order.getOrderType() == Order.OrderType.PURCHASE) {
-                // Increase stock for purchases
-                item.setCurrentStock(item.getCurrentStock() + orderItem.getQuantity());
-            } else if (order.getOrderType() == Order.OrderType.SALE) {
-                // Decrease stock for sales
-                if (item.getCurrentStock() < orderItem.getQuantity()) {
-                    return ResponseEntity
-                            .badRequest()
-                            .body(new MessageResponse("Error: Not enough stock for item: " + item.getName()));
-                }
-                item.setCurrentStock(item.getCurrentStock() - orderItem.getQuantity());
-            }
-            
-            itemRepository.save(item);
+        Order savedOrder = orderService.createOrder(order);
+        savedOrder.getOrderItems().forEach(orderItem -> itemLookupCache.invalidate(orderItem.getItem().getId()));
+        savedOrder.getOrderItems().forEach(orderItem -> stockAlertEvaluator.itemChanged(orderItem.getItem().getId()));
+        savedOrder.getOrderItems().forEach(orderItem -> inventoryValuation.itemChanged(orderItem.getItem().getId()));
+        return ResponseEntity.ok(savedOrder);
+    }
+    
+    // Per order its insert, and per line the stock update, its ledger entry and the line insert
+    @QueryBudget(value = 2, perUnit = 3)
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
+    public ResponseEntity<?> createOrders(@RequestBody List<Order> orders) {
+        if (orders.size() > maxBatchSize) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new MessageResponse("Error: A batch may contain at most " + maxBatchSize + " orders!"));
         }
+        SqlStatementRecorder.addUnits(orders.size() + orders.stream()
+                .mapToInt(order -> order.getOrderItems() != null ? order.getOrderItems().size() : 0)
+                .sum());
         
-        Order savedOrder = orderRepository.save(order);
-        return ResponseEntity.ok(savedOrder);
+        List<BatchOrderResult> results;
+        try {
+            OrderBatchService.BatchOutcome outcome = orderBatchService.createOrders(orders);
+            outcome.touchedItemIds().forEach(itemLookupCache::invalidate);
+            stockAlertEvaluator.itemsChanged(outcome.touchedItemIds());
+            inventoryValuation.itemsChanged(outcome.touchedItemIds());
+            results = outcome.results();
+        } catch (RuntimeException e) {
+            // The batch transaction rolled back, so nothing from it was persisted
+            results = orders.stream()
+                    .map(order -> BatchOrderResult.failed(order.getOrderNumber(), "Error: " + e.getMessage()))
+                    .collect(Collectors.toList());
+        }
+        
+        int accepted = (int) results.stream().filter(BatchOrderResult::isSuccess).count();
+        return ResponseEntity.ok(new BatchOrderResponse(accepted, results.size() - accepted, results));
     }
     
     @PutMapping("/{id}/status")
@@ -143,28 +278,19 @@ public class OrderController {
                     .body(new MessageResponse("Error: Cannot cancel a completed order!"));
         }
         
-        // Revert inventory changes if order is being cancelled
-        if (order.getStatus() != Order.OrderStatus.CANCELLED) {
-            for (OrderItem orderItem : order.getOrderItems()) {
-                Item item = itemRepository.findById(orderItem.getItem().getId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Item", "id", orderItem.getItem().getId()));
-                
-                // Revert inventory based on order type
-                if (order.getOrderType() == Order.OrderType.PURCHASE) {
-                    // Decrease stock for cancelled purchases
-                    item.setCurrentStock(item.getCurrentStock() - orderItem.getQuantity());
-                } else if (order.getOrderType() == Order.OrderType.SALE) {
-                    // Increase stock for cancelled sales
-                    item.setCurrentStock(item.getCurrentStock() + orderItem.getQuantity());
-                }
-                
-                itemRepository.save(item);
-            }
-        }
-        
-        order.setStatus(Order.OrderStatus.CANCELLED);
-        orderRepository.save(order);
+        orderService.cancelOrder(order);
+        order.getOrderItems().forEach(orderItem -> itemLookupCache.invalidate(orderItem.getItem().getId()));
+        order.getOrderItems().forEach(orderItem -> stockAlertEvaluator.itemChanged(orderItem.getItem().getId()));
+        order.getOrderItems().forEach(orderItem -> inventoryValuation.itemChanged(orderItem.getItem().getId()));
         
         return ResponseEntity.ok(new MessageResponse("Order cancelled successfully!"));
     }
+    
+    private String prefixPattern(String value) {
+        String key = Order.searchKey(value);
+        if (key == null) {
+            return null;
+        }
+        return key.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
 } 
\ No newline at end of file
@@ -3,16 +3,20 @@ package com.inventory.smart.controller;
 import com.inventory.smart.dto.MessageResponse;
 import com.inventory.smart.exception.ResourceNotFoundException;
 import com.inventory.smart.model.StockAlert;
-import com.inventory.smart.repository.ItemRepository;
 import com.inventory.smart.repository.StockAlertRepository;
+import com.inventory.smart.service.AlertGenerationJob;
+import com.inventory.smart.service.ExpiryAlertScheduler;
+import com.inventory.smart.service.StockAlertEvaluator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -22,10 +26,17 @@ public class StockAlertController {
     private StockAlertRepository alertRepository;
     
     @Autowired
-    private ItemRepository itemRepository;
+    private StockAlertEvaluator stockAlertEvaluator;
+    
+    @Autowired
+    private ExpiryAlertScheduler expiryAlertScheduler;
+    
+    @Autowired
+    private AlertGenerationJob alertGenerationJob;
     
     @GetMapping
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public List<StockAlert> getAllAlerts() {
         return alertRepository.findAll();
     }
@@ -65,14 +76,21 @@ public class StockAlertController {
     @PostMapping("/generate")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> generateAlerts() {
-        // Generate low stock alerts
-        List<StockAlert> lowStockAlerts = generateLowStockAlerts();
-        
-        // Generate expiry alerts
-        List<StockAlert> expiryAlerts = generateExpiryAlerts();
+        // Joins the run already in progress, if any
+        AlertGenerationJob.RunStats run = alertGenerationJob.run();
         
-        return ResponseEntity.ok(new MessageResponse("Generated " + 
-                (lowStockAlerts.size() + expiryAlerts.size()) + " alerts"));
+        return ResponseEntity.ok(new MessageResponse("Generated " + run.stockAlertsRaised() +
+                " stock alerts; re-evaluating expiry for " + run.expiryItemsQueued() + " items"));
+    }
+    
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> getEvaluatorStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("stock", stockAlertEvaluator.getStats());
+        stats.put("expiry", expiryAlertScheduler.getStats());
+        stats.put("generation", alertGenerationJob.getStats());
+        return stats;
     }
     
     @PutMapping("/{id}/resolve")
@@ -102,64 +120,4 @@ public class StockAlertController {
         
         return ResponseEntity.ok(new MessageResponse("Alert ignored"));
     }
-    
-    private List<StockAlert> generateLowStockAlerts() {
-        // Find items with low stock
-        List<StockAlert> alerts = alertRepository.findByStatusAndAlertType(
-                StockAlert.AlertStatus.ACTIVE, StockAlert.AlertType.LOW_STOCK);
-        
-        // Create a set of item IDs that already have active low stock alerts
-        java.util.Set<Long> itemsWithAlerts = new java.util.HashSet<>();
-        for (StockAlert alert : alerts) {
-            itemsWithAlerts.add(alert.getItem().getId());
-        }
-        
-        // Find items with low stock
-        List<StockAlert> newAlerts = new java.util.ArrayList<>();
-        itemRepository.findLowStockItems().forEach(item -> {
-            if (!itemsWithAlerts.contains(item.getId())) {
-                StockAlert alert = new StockAlert();
-                alert.setItem(item);
-                alert.setAlertType(StockAlert.AlertType.LOW_STOCK);
-                alert.setMessage("Low stock alert: " + item.getName() + " has only " + 
-                        item.getCurrentStock() + " units left (minimum: " + item.getMinimumStock() + ")");
-                alert.setStatus(StockAlert.AlertStatus.ACTIVE);
-                
-                newAlerts.add(alertRepository.save(alert));
-            }
-        });
-        
-        return newAlerts;
-    }
-    
-    private List<StockAlert> generateExpiryAlerts() {
-        // Find items expiring in the next 30 days
-        LocalDate expiryDate = LocalDate.now().plusDays(30);
-        
-        List<StockAlert> alerts = alertRepository.findByStatusAndAlertType(
-                StockAlert.AlertStatus.ACTIVE, StockAlert.AlertType.EXPIRY_APPROACHING);
-        
-        // Create a set of item IDs that already have active expiry alerts
-        java.util.Set<Long> itemsWithAlerts = new java.util.HashSet<>();
-        for (StockAlert alert : alerts) {
-            itemsWithAlerts.add(alert.getItem().getId());
-        }
-        
-        // Find items expiring soon
-        List<StockAlert> newAlerts = new java.util.ArrayList<>();
-        itemRepository.findItemsExpiringBefore(expiryDate).forEach(item -> {
-            if (!itemsWithAlerts.contains(item.getId())) {
-                StockAlert alert = new StockAlert();
-                alert.setItem(item);
-                alert.setAlertType(StockAlert.AlertType.EXPIRY_APPROACHING);
-                alert.setMessage("Expiry alert: " + item.getName() + " will expire on " + 
-                        item.getExpiryDate());
-                alert.setStatus(StockAlert.AlertStatus.ACTIVE);
-                
-                newAlerts.add(alertRepository.save(alert));
-            }
-        });
-        
-        return newAlerts;
-    }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.inventory.smart.controller;
+
+import com.inventory.smart.dto.CursorPage;
+import com.inventory.smart.dto.MessageResponse;
+import com.inventory.smart.dto.StockAsOfDTO;
+import com.inventory.smart.service.StockHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/stock-history")
+public class StockHistoryController {
+    @Autowired
+    private StockHistoryService stockHistoryService;
+    
+    @Value("${app.items.page.default-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${app.items.page.max-size:200}")
+    private int maxPageSize;
+    
+    /**
+     * Stock of every item as of a timestamp (at) or the end of a day (date); defaults to now.
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public CursorPage<StockAsOfDTO> getStockAsOf(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        Long afterId = null;
+        if (cursor != null) {
+            String[] parts = CursorPage.decodeCursor(cursor);
+            try {
+                afterId = Long.valueOf(parts[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+        return stockHistoryService.stockAt(resolveTime(at, date), afterId, pageSize);
+    }
+    
+    @GetMapping("/items/{itemId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public StockAsOfDTO getItemStockAsOf(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return stockHistoryService.stockAt(itemId, resolveTime(at, date));
+    }
+    
+    @PostMapping("/snapshots")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> takeSnapshot() {
+        int count = stockHistoryService.takeSnapshot();
+        return ResponseEntity.ok(new MessageResponse("Recorded stock snapshots for " + count + " items"));
+    }
+    
+    private LocalDateTime resolveTime(LocalDateTime at, LocalDate date) {
+        if (at != null) {
+            return at;
+        }
+        return date != null ? date.atTime(LocalTime.MAX) : LocalDateTime.now();
+    }
+}
@@ -0,0 +1,88 @@
+package com.inventory.smart.controller;
+
+import com.inventory.smart.dto.MessageResponse;
+import com.inventory.smart.dto.StockMovementDTO;
+import com.inventory.smart.repository.StockMovementDailyRepository;
+import com.inventory.smart.service.StockMovementRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/movements")
+public class StockMovementController {
+    @Autowired
+    private StockMovementDailyRepository movementRepository;
+    
+    @Autowired
+    private StockMovementRollup stockMovementRollup;
+    
+    @Value("${app.movements.max-range-days:366}")
+    private int maxRangeDays;
+    
+    @GetMapping("/daily")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public List<StockMovementDTO> getDailyTotals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = validateRange(from, end);
+        return movementRepository.findTotals(start, end);
+    }
+    
+    @GetMapping("/items/{itemId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public List<StockMovementDTO> getItemMovements(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = validateRange(from, end);
+        return movementRepository.findForItem(itemId, start, end);
+    }
+    
+    @GetMapping("/categories/{categoryId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public List<StockMovementDTO> getCategoryMovements(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = validateRange(from, end);
+        return movementRepository.findForCategory(categoryId, start, end);
+    }
+    
+    @PostMapping("/rollup")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> catchUp() {
+        int rows = stockMovementRollup.catchUp();
+        return ResponseEntity.ok(new MessageResponse("Rolled up " + rows + " transactions"));
+    }
+    
+    @GetMapping("/rollup/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> getRollupStats() {
+        return stockMovementRollup.getStats();
+    }
+    
+    // Defaults to the last 30 days and caps the span so a single call stays cheap
+    private LocalDate validateRange(LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : to.minusDays(29);
+        if (start.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, to) >= maxRangeDays) {
+            throw new IllegalArgumentException("Date range may span at most " + maxRangeDays + " days");
+        }
+        return start;
+    }
+}
@@ -1,31 +1,49 @@
 package com.inventory.smart.controller;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.inventory.smart.config.QueryBudget;
 import com.inventory.smart.dto.TransactionDTO;
-import com.inventory.smart.model.Item;
+import com.inventory.smart.exception.InsufficientStockException;
 import com.inventory.smart.model.Transaction;
 import com.inventory.smart.model.Transaction.TransactionType;
-import com.inventory.smart.model.User;
-import com.inventory.smart.repository.ItemRepository;
 import com.inventory.smart.repository.TransactionRepository;
-import com.inventory.smart.repository.UserRepository;
 import com.inventory.smart.security.UserDetailsImpl;
+import com.inventory.smart.service.InventoryValuation;
+import com.inventory.smart.service.ItemLookupCache;
+import com.inventory.smart.service.StockAlertEvaluator;
+import com.inventory.smart.service.TransactionService;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -35,31 +53,92 @@ public class TransactionController {
     private TransactionRepository transactionRepository;
 
     @Autowired
-    private ItemRepository itemRepository;
+    private TransactionService transactionService;
+
+    @Autowired
+    private ItemLookupCache itemLookupCache;
+
+    @Autowired
+    private StockAlertEvaluator stockAlertEvaluator;
+
+    @Autowired
+    private InventoryValuation inventoryValuation;
 
     @Autowired
-    private UserRepository userRepository;
+    private PlatformTransactionManager transactionManager;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @QueryBudget(1)
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<TransactionDTO>> getAllTransactions() {
-        List<Transaction> transactions = transactionRepository.findAll();
-        List<TransactionDTO> transactionDTOs = transactions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(transactionDTOs);
+        return ResponseEntity.ok(transactionRepository.findAllAsDTOs());
     }
 
+    @QueryBudget(1)
     @GetMapping("/item/{itemId}")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('MANAGER') or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<TransactionDTO>> getTransactionsByItem(@PathVariable Long itemId) {
-        List<Transaction> transactions = transactionRepository.findByItemId(itemId);
-        List<TransactionDTO> transactionDTOs = transactions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(transactionDTOs);
+        return ResponseEntity.ok(transactionRepository.findDTOsByItemId(itemId));
+    }
+
+    /**
+     * Streams the ledger as NDJSON or CSV. Rows are read through a forward-only cursor
+     * and written as they arrive, so memory use does not depend on the ledger size.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long itemId,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        boolean csv;
+        if ("csv".equalsIgnoreCase(format)) {
+            csv = true;
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            csv = false;
+        } else {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        StreamingResponseBody body = outputStream -> readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<TransactionDTO> rows = transactionRepository.streamForExport(itemId, type, from, to)) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                if (csv) {
+                    writer.write("id,itemId,itemName,itemSku,userId,username,quantity,type,notes,createdAt\n");
+                }
+                for (TransactionDTO dto : (Iterable<TransactionDTO>) rows::iterator) {
+                    if (csv) {
+                        writeCsvRow(writer, dto);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(dto));
+                        writer.write('\n');
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
     }
 
+    @QueryBudget(3)
     @PostMapping
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<?> createTransaction(@RequestBody TransactionDTO transactionDTO) {
@@ -67,40 +146,15 @@ public class TransactionController {
             // Get the current authenticated user
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User user = userRepository.findById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            // Find the item
-            Item item = itemRepository.findById(transactionDTO.getItemId())
-                    .orElseThrow(() -> new RuntimeException("Item not found"));
-
-            // Create and save the transaction
-            Transaction transaction = new Transaction();
-            transaction.setItem(item);
-            transaction.setUser(user);
-            transaction.setQuantity(transactionDTO.getQuantity());
-            transaction.setType(transactionDTO.getType());
-            transaction.setNotes(transactionDTO.getNotes());
-            transaction.setCreatedAt(LocalDateTime.now());
-
-            // Update the item's stock
-            int newStock = item.getCurrentStock();
-            if (transactionDTO.getType() == TransactionType.STOCK_IN) {
-                newStock += transactionDTO.getQuantity();
-            } else if (transactionDTO.getType() == TransactionType.STOCK_OUT) {
-                newStock -= transactionDTO.getQuantity();
-                if (newStock < 0) {
-                    return ResponseEntity.badRequest().body("Stock cannot be negative");
-                }
-            } else if (transactionDTO.getType() == TransactionType.ADJUSTMENT) {
-                newStock = transactionDTO.getQuantity(); // Direct set for adjustments
-            }
-            
-            item.setCurrentStock(newStock);
-            itemRepository.save(item);
-            
-            Transaction savedTransaction = transactionRepository.save(transaction);
+
+            Transaction savedTransaction = transactionService.recordTransaction(userDetails.getId(),
+                    userDetails.getUsername(), transactionDTO);
+            itemLookupCache.invalidate(transactionDTO.getItemId());
+            stockAlertEvaluator.itemChanged(transactionDTO.getItemId());
+            inventoryValuation.itemChanged(transactionDTO.getItemId());
             return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedTransaction));
+        } catch (InsufficientStockException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error creating transaction: " + e.getMessage());
@@ -125,4 +179,37 @@ public class TransactionController {
         dto.setCreatedAt(transaction.getCreatedAt());
         return dto;
     }
-} 
\ No newline at end of file
+
+    private void writeCsvRow(Writer writer, TransactionDTO dto) throws IOException {
+        writer.write(String.valueOf(dto.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getItemId()));
+        writer.write(',');
+        writer.write(csvField(dto.getItemName()));
+        writer.write(',');
+        writer.write(csvField(dto.getItemSku()));
+        writer.write(',');
+        writer.write(dto.getUserId() != null ? dto.getUserId().toString() : "");
+        writer.write(',');
+        writer.write(csvField(dto.getUsername()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getQuantity()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getType()));
+        writer.write(',');
+        writer.write(csvField(dto.getNotes()));
+        writer.write(',');
+        writer.write(dto.getCreatedAt() != null ? dto.getCreatedAt().toString() : "");
+        writer.write('\n');
+    }
+
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
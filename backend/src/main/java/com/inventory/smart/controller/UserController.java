@@ -4,6 +4,8 @@ import com.inventory.smart.dto.MessageResponse;
 import com.inventory.smart.exception.ResourceNotFoundException;
 import com.inventory.smart.model.User;
 import com.inventory.smart.repository.UserRepository;
+import com.inventory.smart.security.VerifiedTokenCache;
+import com.inventory.smart.service.TokenVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,6 +20,12 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TokenVersionService tokenVersionService;
+    
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+    
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public List<User> getAllUsers() {
@@ -48,6 +56,24 @@ public class UserController {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         
+        // Soft delete; outstanding tokens stop working immediately
+        user.setActive(false);
+        tokenVersionService.revokeTokens(user);
+        verifiedTokenCache.evictUser(id);
+        
         return ResponseEntity.ok(new MessageResponse("User deactivated successfully"));
     }
+    
+    @PostMapping("/{id}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> revokeTokens(@PathVariable Long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        
+        tokenVersionService.revokeTokens(user);
+        int evicted = verifiedTokenCache.evictUser(id);
+        
+        return ResponseEntity.ok(new MessageResponse("Revoked tokens for user " + user.getUsername()
+                + " (" + evicted + " cached)"));
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.inventory.smart.controller;
+
+import com.inventory.smart.service.InventoryValuation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/valuation")
+public class ValuationController {
+    @Autowired
+    private InventoryValuation inventoryValuation;
+    
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public Map<String, Object> getValuation() {
+        return inventoryValuation.getValuation();
+    }
+    
+    @PostMapping("/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> recompute() {
+        return inventoryValuation.recompute();
+    }
+}
@@ -0,0 +1,16 @@
+package com.inventory.smart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResponse {
+    private int accepted;
+    private int rejected;
+    private List<BatchOrderResult> results;
+}
@@ -0,0 +1,19 @@
+package com.inventory.smart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResult {
+    private String orderNumber;
+    private boolean success;
+    private Long orderId;
+    private String message;
+    
+    public static BatchOrderResult failed(String orderNumber, String message) {
+        return new BatchOrderResult(orderNumber, false, null, message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.inventory.smart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAsOfDTO {
+    private Long itemId;
+    private String sku;
+    private String name;
+    private LocalDateTime at;
+    private Integer stock;
+    private LocalDateTime snapshotAt;
+    private int replayedTransactions;
+}
@@ -0,0 +1,18 @@
+package com.inventory.smart.dto;
+
+import com.inventory.smart.model.Transaction.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementDTO {
+    private LocalDate date;
+    private TransactionType type;
+    private Long quantity;
+    private Long transactionCount;
+}
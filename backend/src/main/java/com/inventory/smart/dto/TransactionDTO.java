@@ -20,6 +20,20 @@ public class TransactionDTO {
     public TransactionDTO() {
     }
 
+    public TransactionDTO(Long id, Long itemId, String itemName, String itemSku, Long userId, String username,
+                          Integer quantity, TransactionType type, String notes, LocalDateTime createdAt) {
+        this.id = id;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.itemSku = itemSku;
+        this.userId = userId;
+        this.username = username;
+        this.quantity = quantity;
+        this.type = type;
+        this.notes = notes;
+        this.createdAt = createdAt;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
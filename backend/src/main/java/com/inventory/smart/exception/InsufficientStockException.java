@@ -0,0 +1,20 @@
+package com.inventory.smart.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InsufficientStockException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final Long itemId;
+
+    public InsufficientStockException(Long itemId, String message) {
+        super(message);
+        this.itemId = itemId;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+}
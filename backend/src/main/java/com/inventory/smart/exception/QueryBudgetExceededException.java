@@ -0,0 +1,22 @@
+package com.inventory.smart.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String endpoint;
+    private final int budget;
+
+    public QueryBudgetExceededException(String endpoint, int budget, String sql) {
+        super("Query budget of " + budget + " statements exceeded by " + endpoint + " at: " + sql);
+        this.endpoint = endpoint;
+        this.budget = budget;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+}
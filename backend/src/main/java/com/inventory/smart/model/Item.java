@@ -7,6 +7,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -16,6 +17,7 @@ import java.time.LocalDateTime;
 @Table(name = "items", uniqueConstraints = {
     @UniqueConstraint(columnNames = "sku")
 })
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,8 +40,10 @@ public class Item {
     @JoinColumn(name = "category_id")
     private Category category;
     
+    // Written only by StockService's conditional UPDATEs, never by saving the entity
     @NotNull
     @Min(0)
+    @Column(updatable = false)
     private Integer currentStock;
     
     @NotNull
@@ -69,6 +73,7 @@ public class Item {
     @Column(updatable = false)
     private LocalDateTime createdAt;
     
+    @Column(nullable = false)
     private LocalDateTime updatedAt;
     
     @PrePersist
@@ -1,18 +1,27 @@
 package com.inventory.smart.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_type_created", columnList = "status, order_type, created_at"),
+        @Index(name = "idx_orders_type_created", columnList = "order_type, created_at"),
+        @Index(name = "idx_orders_created", columnList = "created_at"),
+        @Index(name = "idx_orders_customer_key", columnList = "customer_key"),
+        @Index(name = "idx_orders_supplier_key", columnList = "supplier_key")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,11 +43,20 @@ public class Order {
     
     private String supplier;
     
+    // Lower-cased copies of customer/supplier so prefix searches can use an index
+    @JsonIgnore
+    private String customerKey;
+    
+    @JsonIgnore
+    private String supplierKey;
+    
     @NotNull
     private BigDecimal totalAmount;
     
     private String notes;
     
+    // List endpoints serialize every order's lines; load them for up to 100 orders per select
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> orderItems = new ArrayList<>();
     
@@ -53,11 +71,22 @@ public class Order {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = createdAt;
+        customerKey = searchKey(customer);
+        supplierKey = searchKey(supplier);
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        customerKey = searchKey(customer);
+        supplierKey = searchKey(supplier);
+    }
+    
+    public static String searchKey(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
     }
     
     public enum OrderType {
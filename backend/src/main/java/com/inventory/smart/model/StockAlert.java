@@ -33,6 +33,9 @@ public class StockAlert {
     
     private String resolvedBy;
     
+    // Set once alert sync sees the condition clear; until then the alert blocks a new one of its type
+    private LocalDateTime clearedAt;
+    
     @Column(updatable = false)
     private LocalDateTime createdAt;
     
@@ -0,0 +1,44 @@
+package com.inventory.smart.model;
+
+import com.inventory.smart.model.Transaction.TransactionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Per item, day and transaction type totals, maintained from the transactions ledger.
+ * For ADJUSTMENT rows the quantity is the sum of the levels set, so only the count
+ * is meaningful there.
+ */
+@Entity
+@Table(name = "stock_movement_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_movement_daily",
+                columnNames = {"item_id", "movement_date", "type"}),
+        indexes = @Index(name = "idx_stock_movement_daily_date", columnList = "movement_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+    
+    @Column(name = "movement_date", nullable = false)
+    private LocalDate movementDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+    
+    @Column(nullable = false)
+    private Long quantity;
+    
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+}
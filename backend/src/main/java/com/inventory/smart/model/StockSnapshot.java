@@ -0,0 +1,40 @@
+package com.inventory.smart.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock level of one item at a point in time. Historical levels are derived from the
+ * nearest earlier snapshot plus the item's transactions with an id above its ledger mark.
+ */
+@Entity
+@Table(name = "stock_snapshots", indexes = {
+        @Index(name = "idx_stock_snapshots_item_taken", columnList = "item_id, taken_at"),
+        @Index(name = "idx_stock_snapshots_taken", columnList = "taken_at"),
+        @Index(name = "idx_stock_snapshots_item_ledger", columnList = "item_id, ledger_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+    
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+    
+    @Column(nullable = false)
+    private Integer stock;
+    
+    // Highest transaction id of this item whose change is included in stock
+    @Column(name = "ledger_id", nullable = false)
+    private Long ledgerId;
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -16,7 +17,10 @@ import jakarta.persistence.Table;
 import org.hibernate.annotations.CreationTimestamp;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_item_created", columnList = "item_id, created_at"),
+        @Index(name = "idx_transactions_rolled_up", columnList = "rolled_up")
+})
 public class Transaction {
 
     @Id
@@ -45,6 +49,18 @@ public class Transaction {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // False while the change is recorded here but not yet folded into items.current_stock
+    @Column(name = "stock_applied")
+    private Boolean stockApplied;
+
+    // Sequence number in the local ledger for rows replicated from it, null otherwise
+    @Column(name = "ledger_seq", unique = true)
+    private Long ledgerSeq;
+
+    // Null until the row has been counted in the daily movement rollup
+    @Column(name = "rolled_up")
+    private Boolean rolledUp;
+
     public enum TransactionType {
         STOCK_IN, STOCK_OUT, ADJUSTMENT
     }
@@ -117,4 +133,28 @@ public class Transaction {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Boolean getStockApplied() {
+        return stockApplied;
+    }
+
+    public void setStockApplied(Boolean stockApplied) {
+        this.stockApplied = stockApplied;
+    }
+
+    public Long getLedgerSeq() {
+        return ledgerSeq;
+    }
+
+    public void setLedgerSeq(Long ledgerSeq) {
+        this.ledgerSeq = ledgerSeq;
+    }
+
+    public Boolean getRolledUp() {
+        return rolledUp;
+    }
+
+    public void setRolledUp(Boolean rolledUp) {
+        this.rolledUp = rolledUp;
+    }
 } 
\ No newline at end of file
@@ -53,6 +53,10 @@ public class User {
     
     private boolean active = true;
     
+    // Bumped whenever previously issued tokens must stop being accepted
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+    
     private String createdBy;
     
     @Column(updatable = false)
@@ -1,11 +1,18 @@
 package com.inventory.smart.repository;
 
 import com.inventory.smart.model.Item;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,17 +20,90 @@ import java.util.Optional;
 public interface ItemRepository extends JpaRepository<Item, Long> {
     Optional<Item> findBySku(String sku);
     
-    List<Item> findByCategory_Id(Long categoryId);
+    @Query("SELECT i.id FROM Item i WHERE i.sku = :sku")
+    Optional<Long> findIdBySku(@Param("sku") String sku);
     
     int countByCategory_Id(Long categoryId);
     
+    @Query("SELECT i.category.id, COUNT(i) FROM Item i WHERE i.category IS NOT NULL GROUP BY i.category.id")
+    List<Object[]> countItemsGroupedByCategory();
+    
     List<Item> findByNameContainingIgnoreCase(String name);
     
-    @Query("SELECT i FROM Item i WHERE i.currentStock <= i.minimumStock AND i.active = true")
-    List<Item> findLowStockItems();
+    Boolean existsBySku(String sku);
+    
+    // Locks the rows in id order, so writers that lock several items cannot deadlock each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
     
-    @Query("SELECT i FROM Item i WHERE i.expiryDate IS NOT NULL AND i.expiryDate <= :date AND i.active = true")
-    List<Item> findItemsExpiringBefore(LocalDate date);
+    // Single-statement stock mutations; each returns the number of rows changed (0 or 1)
+    @Modifying
+    @Query("UPDATE Item i SET i.currentStock = i.currentStock + :quantity, i.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE i.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
     
-    Boolean existsBySku(String sku);
+    @Modifying
+    @Query("UPDATE Item i SET i.currentStock = i.currentStock - :quantity, i.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE i.id = :id AND i.currentStock >= :quantity")
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE Item i SET i.currentStock = :quantity, i.updatedAt = CURRENT_TIMESTAMP WHERE i.id = :id")
+    int setStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Query("SELECT i.id FROM Item i WHERE i.id > :afterId ORDER BY i.id ASC")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT i.id, c.id, i.costPrice, i.sellingPrice, i.currentStock FROM Item i LEFT JOIN i.category c " +
+           "WHERE i.id > :afterId ORDER BY i.id ASC")
+    List<Object[]> findValuationRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT i.id, c.id, i.costPrice, i.sellingPrice, i.currentStock FROM Item i LEFT JOIN i.category c " +
+           "WHERE i.id IN :ids")
+    List<Object[]> findValuationRows(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT i.id, i.expiryDate FROM Item i " +
+           "WHERE i.id > :afterId AND i.expiryDate IS NOT NULL AND i.active = true ORDER BY i.id ASC")
+    List<Object[]> findExpiryDatesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.category WHERE i.id IN :ids")
+    List<Item> findWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT i.id, i.name, i.sku FROM Item i WHERE i.id > :afterId ORDER BY i.id ASC")
+    List<Object[]> findSearchKeysAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.category WHERE " +
+            "(:afterId IS NULL OR i.id > :afterId) " +
+            "AND (:categoryId IS NULL OR i.category.id = :categoryId) " +
+            "AND (:active IS NULL OR i.active = :active) " +
+            "AND (:lowStock = false OR i.currentStock - i.minimumStock <= 0) " +
+            "AND (:location IS NULL OR i.location = :location) " +
+            "AND (:expiresBy IS NULL OR i.expiryDate <= :expiresBy) " +
+            "ORDER BY i.id ASC")
+    List<Item> findPageOrderById(@Param("afterId") Long afterId,
+                                 @Param("categoryId") Long categoryId,
+                                 @Param("active") Boolean active,
+                                 @Param("lowStock") boolean lowStock,
+                                 @Param("location") String location,
+                                 @Param("expiresBy") LocalDate expiresBy,
+                                 Pageable pageable);
+    
+    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.category WHERE " +
+            "(:afterUpdatedAt IS NULL OR i.updatedAt < :afterUpdatedAt " +
+            "OR (i.updatedAt = :afterUpdatedAt AND i.id < :afterId)) " +
+            "AND (:categoryId IS NULL OR i.category.id = :categoryId) " +
+            "AND (:active IS NULL OR i.active = :active) " +
+            "AND (:lowStock = false OR i.currentStock - i.minimumStock <= 0) " +
+            "AND (:location IS NULL OR i.location = :location) " +
+            "AND (:expiresBy IS NULL OR i.expiryDate <= :expiresBy) " +
+            "ORDER BY i.updatedAt DESC, i.id DESC")
+    List<Item> findPageOrderByUpdatedAt(@Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+                                        @Param("afterId") Long afterId,
+                                        @Param("categoryId") Long categoryId,
+                                        @Param("active") Boolean active,
+                                        @Param("lowStock") boolean lowStock,
+                                        @Param("location") String location,
+                                        @Param("expiresBy") LocalDate expiresBy,
+                                        Pageable pageable);
 } 
\ No newline at end of file
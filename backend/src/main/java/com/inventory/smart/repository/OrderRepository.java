@@ -3,10 +3,16 @@ package com.inventory.smart.repository;
 import com.inventory.smart.model.Order;
 import com.inventory.smart.model.Order.OrderStatus;
 import com.inventory.smart.model.Order.OrderType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,15 +20,84 @@ import java.util.Optional;
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Optional<Order> findByOrderNumber(String orderNumber);
     
-    List<Order> findByOrderType(OrderType orderType);
+    // The unpaged list endpoints fetch lines, items and categories in the same statement, so
+    // their query count does not grow with the number of orders returned
+    String WITH_LINES = "SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems oi " +
+            "LEFT JOIN FETCH oi.item i LEFT JOIN FETCH i.category ";
     
-    List<Order> findByStatus(OrderStatus status);
+    @Query(WITH_LINES)
+    List<Order> findAllWithItems();
     
-    List<Order> findByCustomerContainingIgnoreCase(String customer);
+    @Query(WITH_LINES + "WHERE o.orderType = :orderType")
+    List<Order> findByOrderType(@Param("orderType") OrderType orderType);
     
-    List<Order> findBySupplierContainingIgnoreCase(String supplier);
+    @Query(WITH_LINES + "WHERE o.status = :status")
+    List<Order> findByStatus(@Param("status") OrderStatus status);
     
-    List<Order> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+    @Query(WITH_LINES + "WHERE LOWER(o.customer) LIKE LOWER(CONCAT('%', :customer, '%'))")
+    List<Order> findByCustomerContainingIgnoreCase(@Param("customer") String customer);
+    
+    @Query(WITH_LINES + "WHERE LOWER(o.supplier) LIKE LOWER(CONCAT('%', :supplier, '%'))")
+    List<Order> findBySupplierContainingIgnoreCase(@Param("supplier") String supplier);
+    
+    @Query(WITH_LINES + "WHERE o.createdAt BETWEEN :start AND :end")
+    List<Order> findByCreatedAtBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
     
     Boolean existsByOrderNumber(String orderNumber);
+    
+    @Query("SELECT o.orderNumber FROM Order o WHERE o.orderNumber IN :orderNumbers")
+    List<String> findExistingOrderNumbers(@Param("orderNumbers") Collection<String> orderNumbers);
+    
+    // Keyset search; customerPrefix/supplierPrefix are already lower-cased, escaped with '!' and end in '%'
+    @Query("SELECT o.id, o.createdAt FROM Order o WHERE " +
+            "(:afterCreatedAt IS NULL OR o.createdAt < :afterCreatedAt " +
+            "OR (o.createdAt = :afterCreatedAt AND o.id < :afterId)) " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:orderType IS NULL OR o.orderType = :orderType) " +
+            "AND (:from IS NULL OR o.createdAt >= :from) " +
+            "AND (:to IS NULL OR o.createdAt < :to) " +
+            "AND (:customerPrefix IS NULL OR o.customerKey LIKE :customerPrefix ESCAPE '!') " +
+            "AND (:supplierPrefix IS NULL OR o.supplierKey LIKE :supplierPrefix ESCAPE '!') " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Object[]> searchNewestFirst(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                     @Param("afterId") Long afterId,
+                                     @Param("status") OrderStatus status,
+                                     @Param("orderType") OrderType orderType,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("customerPrefix") String customerPrefix,
+                                     @Param("supplierPrefix") String supplierPrefix,
+                                     Pageable pageable);
+    
+    @Query("SELECT o.id, o.createdAt FROM Order o WHERE " +
+            "(:afterCreatedAt IS NULL OR o.createdAt > :afterCreatedAt " +
+            "OR (o.createdAt = :afterCreatedAt AND o.id > :afterId)) " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:orderType IS NULL OR o.orderType = :orderType) " +
+            "AND (:from IS NULL OR o.createdAt >= :from) " +
+            "AND (:to IS NULL OR o.createdAt < :to) " +
+            "AND (:customerPrefix IS NULL OR o.customerKey LIKE :customerPrefix ESCAPE '!') " +
+            "AND (:supplierPrefix IS NULL OR o.supplierKey LIKE :supplierPrefix ESCAPE '!') " +
+            "ORDER BY o.createdAt ASC, o.id ASC")
+    List<Object[]> searchOldestFirst(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                     @Param("afterId") Long afterId,
+                                     @Param("status") OrderStatus status,
+                                     @Param("orderType") OrderType orderType,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("customerPrefix") String customerPrefix,
+                                     @Param("supplierPrefix") String supplierPrefix,
+                                     Pageable pageable);
+    
+    // Loads a page of orders with their lines in one round trip
+    @Query(WITH_LINES + "WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Fills search keys for rows written before the key columns existed
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.customerKey = LOWER(TRIM(o.customer)), o.supplierKey = LOWER(TRIM(o.supplier)) " +
+            "WHERE (o.customerKey IS NULL AND o.customer IS NOT NULL) " +
+            "OR (o.supplierKey IS NULL AND o.supplier IS NOT NULL)")
+    int backfillSearchKeys();
 } 
\ No newline at end of file
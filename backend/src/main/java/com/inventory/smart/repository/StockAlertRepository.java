@@ -4,8 +4,13 @@ import com.inventory.smart.model.StockAlert;
 import com.inventory.smart.model.StockAlert.AlertStatus;
 import com.inventory.smart.model.StockAlert.AlertType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,4 +22,19 @@ public interface StockAlertRepository extends JpaRepository<StockAlert, Long> {
     List<StockAlert> findByItem_Id(Long itemId);
     
     List<StockAlert> findByStatusAndAlertType(AlertStatus status, AlertType alertType);
+    
+    @Query("SELECT a.id, a.item.id, a.alertType, a.status FROM StockAlert a " +
+           "WHERE a.item.id IN :itemIds AND a.clearedAt IS NULL AND a.alertType IN :alertTypes")
+    List<Object[]> findUnclearedAlertKeys(@Param("itemIds") Collection<Long> itemIds,
+            @Param("alertTypes") Collection<AlertType> alertTypes);
+    
+    @Modifying
+    @Query("UPDATE StockAlert a SET a.status = :status, a.resolvedAt = :resolvedAt, a.resolvedBy = :resolvedBy " +
+           "WHERE a.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") AlertStatus status,
+            @Param("resolvedAt") LocalDateTime resolvedAt, @Param("resolvedBy") String resolvedBy);
+    
+    @Modifying
+    @Query("UPDATE StockAlert a SET a.clearedAt = :clearedAt WHERE a.id IN :ids")
+    int markCleared(@Param("ids") Collection<Long> ids, @Param("clearedAt") LocalDateTime clearedAt);
 } 
\ No newline at end of file
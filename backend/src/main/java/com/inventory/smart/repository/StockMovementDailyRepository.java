@@ -0,0 +1,35 @@
+package com.inventory.smart.repository;
+
+import com.inventory.smart.dto.StockMovementDTO;
+import com.inventory.smart.model.StockMovementDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockMovementDailyRepository extends JpaRepository<StockMovementDaily, Long> {
+    List<StockMovementDaily> findByItemIdInAndMovementDateIn(Collection<Long> itemIds, Collection<LocalDate> dates);
+    
+    @Query("SELECT new com.inventory.smart.dto.StockMovementDTO(m.movementDate, m.type, m.quantity, m.transactionCount) " +
+           "FROM StockMovementDaily m WHERE m.itemId = :itemId AND m.movementDate BETWEEN :from AND :to " +
+           "ORDER BY m.movementDate ASC, m.type ASC")
+    List<StockMovementDTO> findForItem(@Param("itemId") Long itemId, @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+    
+    @Query("SELECT new com.inventory.smart.dto.StockMovementDTO(m.movementDate, m.type, SUM(m.quantity), " +
+           "SUM(m.transactionCount)) FROM StockMovementDaily m, Item i " +
+           "WHERE i.id = m.itemId AND i.category.id = :categoryId AND m.movementDate BETWEEN :from AND :to " +
+           "GROUP BY m.movementDate, m.type ORDER BY m.movementDate ASC, m.type ASC")
+    List<StockMovementDTO> findForCategory(@Param("categoryId") Long categoryId, @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+    
+    @Query("SELECT new com.inventory.smart.dto.StockMovementDTO(m.movementDate, m.type, SUM(m.quantity), " +
+           "SUM(m.transactionCount)) FROM StockMovementDaily m WHERE m.movementDate BETWEEN :from AND :to " +
+           "GROUP BY m.movementDate, m.type ORDER BY m.movementDate ASC, m.type ASC")
+    List<StockMovementDTO> findTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,34 @@
+package com.inventory.smart.repository;
+
+import com.inventory.smart.model.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+    Optional<StockSnapshot> findFirstByItemIdAndTakenAtLessThanEqualOrderByTakenAtDesc(Long itemId, LocalDateTime at);
+    
+    @Query("SELECT s FROM StockSnapshot s WHERE s.itemId IN :itemIds AND s.takenAt = " +
+           "(SELECT MAX(s2.takenAt) FROM StockSnapshot s2 WHERE s2.itemId = s.itemId AND s2.takenAt <= :at)")
+    List<StockSnapshot> findLatestForItems(@Param("itemIds") Collection<Long> itemIds, @Param("at") LocalDateTime at);
+    
+    // One set-based statement over items with transactions past their latest snapshot's mark (or
+    // no snapshot yet). Under REPEATABLE READ, MySQL reads the rows of an INSERT ... SELECT with
+    // shared locks, so each item's stock and mark are read after its in-flight writers commit
+    @Modifying
+    @Query("INSERT INTO StockSnapshot (itemId, takenAt, stock, ledgerId) " +
+           "SELECT i.id, :takenAt, i.currentStock, " +
+           "COALESCE((SELECT MAX(t.id) FROM Transaction t WHERE t.item.id = i.id), 0) FROM Item i " +
+           "WHERE NOT EXISTS (SELECT 1 FROM StockSnapshot s WHERE s.itemId = i.id) " +
+           "OR EXISTS (SELECT 1 FROM Transaction t WHERE t.item.id = i.id AND t.id > " +
+           "(SELECT MAX(s.ledgerId) FROM StockSnapshot s WHERE s.itemId = i.id))")
+    int snapshotChangedItems(@Param("takenAt") LocalDateTime takenAt);
+}
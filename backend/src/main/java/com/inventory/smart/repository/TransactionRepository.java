@@ -1,12 +1,23 @@
 package com.inventory.smart.repository;
 
+import com.inventory.smart.dto.TransactionDTO;
 import com.inventory.smart.model.Item;
 import com.inventory.smart.model.Transaction;
 import com.inventory.smart.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -14,4 +25,69 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByUser(User user);
     List<Transaction> findByType(Transaction.TransactionType type);
     List<Transaction> findByItemId(Long itemId);
+
+    @Query("SELECT t.id, t.item.id, t.type, t.quantity FROM Transaction t " +
+            "WHERE t.stockApplied = false ORDER BY t.id ASC")
+    List<Object[]> findUnappliedStockChanges(Pageable pageable);
+
+    @Query("SELECT t.type, t.quantity FROM Transaction t " +
+            "WHERE t.item.id = :itemId AND t.stockApplied = false ORDER BY t.id ASC")
+    List<Object[]> findUnappliedStockChangesForItem(@Param("itemId") Long itemId);
+
+    @Query("SELECT t.type, t.quantity FROM Transaction t " +
+            "WHERE t.item.id = :itemId AND t.id > :afterId AND t.createdAt <= :to ORDER BY t.id ASC")
+    List<Object[]> findStockChangesForItemAfter(@Param("itemId") Long itemId, @Param("afterId") Long afterId,
+                                                @Param("to") LocalDateTime to);
+
+    // Each item's changes start after its own snapshot's mark, so a page never reads the
+    // history between the oldest and the newest snapshot on it
+    @Query("SELECT t.item.id, t.type, t.quantity FROM StockSnapshot s " +
+            "JOIN Transaction t ON t.item.id = s.itemId AND t.id > s.ledgerId " +
+            "WHERE s.id IN :snapshotIds AND t.createdAt <= :to ORDER BY t.id ASC")
+    List<Object[]> findStockChangesAfterSnapshots(@Param("snapshotIds") Collection<Long> snapshotIds,
+                                                  @Param("to") LocalDateTime to);
+
+    @Query("SELECT t.id, t.item.id, t.createdAt, t.type, t.quantity FROM Transaction t " +
+            "WHERE t.rolledUp IS NULL ORDER BY t.id ASC")
+    List<Object[]> findNotRolledUp(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Transaction t SET t.rolledUp = true WHERE t.id IN :ids")
+    int markRolledUp(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT MAX(t.ledgerSeq) FROM Transaction t")
+    Long findMaxLedgerSeq();
+
+    @Modifying
+    @Query("UPDATE Transaction t SET t.stockApplied = true WHERE t.id IN :ids")
+    int markStockApplied(@Param("ids") Collection<Long> ids);
+
+    // One joined query instead of an item and user load per row
+    @Query("SELECT new com.inventory.smart.dto.TransactionDTO(t.id, i.id, i.name, i.sku, u.id, u.username, " +
+            "t.quantity, t.type, t.notes, t.createdAt) " +
+            "FROM Transaction t JOIN t.item i LEFT JOIN t.user u ORDER BY t.id ASC")
+    List<TransactionDTO> findAllAsDTOs();
+
+    @Query("SELECT new com.inventory.smart.dto.TransactionDTO(t.id, i.id, i.name, i.sku, u.id, u.username, " +
+            "t.quantity, t.type, t.notes, t.createdAt) " +
+            "FROM Transaction t JOIN t.item i LEFT JOIN t.user u WHERE i.id = :itemId ORDER BY t.id ASC")
+    List<TransactionDTO> findDTOsByItemId(@Param("itemId") Long itemId);
+
+    // Projects straight into DTOs so streamed rows never enter the persistence context
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.inventory.smart.dto.TransactionDTO(t.id, i.id, i.name, i.sku, u.id, u.username, " +
+            "t.quantity, t.type, t.notes, t.createdAt) " +
+            "FROM Transaction t JOIN t.item i LEFT JOIN t.user u WHERE " +
+            "(:itemId IS NULL OR i.id = :itemId) " +
+            "AND (:type IS NULL OR t.type = :type) " +
+            "AND (:from IS NULL OR t.createdAt >= :from) " +
+            "AND (:to IS NULL OR t.createdAt < :to) " +
+            "ORDER BY t.id ASC")
+    Stream<TransactionDTO> streamForExport(@Param("itemId") Long itemId,
+                                           @Param("type") Transaction.TransactionType type,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
 } 
\ No newline at end of file
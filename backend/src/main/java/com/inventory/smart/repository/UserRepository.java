@@ -2,6 +2,8 @@ package com.inventory.smart.repository;
 
 import com.inventory.smart.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -15,4 +17,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
     
     Boolean existsByEmail(String email);
+    
+    @Query("SELECT u.tokenVersion AS tokenVersion, u.active AS active FROM User u WHERE u.id = :id")
+    Optional<TokenState> findTokenStateById(@Param("id") Long id);
+    
+    interface TokenState {
+        Integer getTokenVersion();
+        
+        boolean isActive();
+    }
 } 
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.inventory.smart.security;
 
+import com.inventory.smart.service.TokenVersionService;
 import com.inventory.smart.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,7 +21,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
@@ -28,6 +29,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -35,29 +42,15 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                
-                // Get roles from JWT token
-                List<String> roles = jwtUtils.getRolesFromJwtToken(jwt);
-                
-                // Convert roles to SimpleGrantedAuthority objects
-                List<SimpleGrantedAuthority> authorities;
-                if (roles != null) {
-                    authorities = roles.stream()
-                            .map(SimpleGrantedAuthority::new)
-                            .collect(Collectors.toList());
-                } else {
-                    // Default to empty list if roles are null
-                    authorities = new ArrayList<>();
-                }
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (jwt != null) {
+                UserDetails userDetails = authenticate(jwt);
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
@@ -66,6 +59,54 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails authenticate(String jwt) {
+        VerifiedTokenCache.VerifiedToken cached = verifiedTokenCache.get(jwt);
+        if (cached != null) {
+            UserDetailsImpl principal = cached.principal();
+            return tokenVersionService.isCurrent(principal.getId(), principal.getTokenVersion()) ? principal : null;
+        }
+
+        Claims claims = jwtUtils.parseClaims(jwt);
+        if (claims == null) {
+            return null;
+        }
+
+        UserDetails userDetails = buildPrincipal(claims);
+        if (userDetails != null && claims.get("uid") != null && claims.getExpiration() != null) {
+            verifiedTokenCache.put(jwt, (UserDetailsImpl) userDetails, claims.getExpiration().getTime());
+        }
+        return userDetails;
+    }
+
+    /**
+     * Builds the principal from verified claims. The database is only consulted for
+     * legacy tokens without a user id, or when the user's token state is not cached.
+     */
+    private UserDetails buildPrincipal(Claims claims) {
+        Number userId = claims.get("uid", Number.class);
+        if (userId == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        Number version = claims.get("ver", Number.class);
+        int tokenVersion = version != null ? version.intValue() : 0;
+        if (!tokenVersionService.isCurrent(userId.longValue(), tokenVersion)) {
+            logger.warn("Rejected revoked or outdated token for user id {}", userId);
+            return null;
+        }
+
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+        List<?> roles = claims.get("roles", List.class);
+        if (roles != null) {
+            for (Object role : roles) {
+                authorities.add(new SimpleGrantedAuthority(role.toString()));
+            }
+        }
+
+        return new UserDetailsImpl(userId.longValue(), claims.getSubject(), null, null, null,
+                authorities, tokenVersion);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
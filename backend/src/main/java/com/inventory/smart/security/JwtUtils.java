@@ -3,6 +3,7 @@ package com.inventory.smart.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,6 +26,17 @@ public class JwtUtils {
     @Value("${app.jwt.expiration}")
     private int jwtExpirationMs;
 
+    // The secret never changes at runtime, so decode it and build the parser once
+    private Key signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
         
@@ -38,29 +50,34 @@ public class JwtUtils {
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
                 .claim("roles", roles) // Add roles as a claim
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .claim("uid", userPrincipal.getId())
+                .claim("ver", userPrincipal.getTokenVersion())
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
     
     @SuppressWarnings("unchecked")
     public List<String> getRolesFromJwtToken(String token) {
-        return (List<String>) Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().get("roles");
+        return (List<String>) jwtParser.parseClaimsJws(token).getBody().get("roles");
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    /**
+     * Verifies the token and returns its claims in a single parse, or null if the
+     * token is invalid or expired.
+     */
+    public Claims parseClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
+        } catch (io.jsonwebtoken.security.SecurityException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -71,6 +88,6 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return null;
     }
 } 
\ No newline at end of file
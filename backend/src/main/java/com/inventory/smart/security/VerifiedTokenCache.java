@@ -0,0 +1,117 @@
+package com.inventory.smart.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded LRU cache of tokens whose signature has already been verified, keyed by a
+ * SHA-256 digest of the token. Entries expire together with the token itself.
+ */
+@Component
+public class VerifiedTokenCache {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @Value("${app.jwt.token-cache.max-size:50000}")
+    private long maxSize;
+
+    private Cache<String, VerifiedToken> tokens;
+
+    private final Map<Long, Set<String>> digestsByUser = new ConcurrentHashMap<>();
+
+    public record VerifiedToken(UserDetailsImpl principal, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    public void init() {
+        tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .removalListener((String key, VerifiedToken value, RemovalCause cause) -> {
+                    if (key != null && value != null) {
+                        untrack(value.principal().getId(), key);
+                    }
+                })
+                .build();
+    }
+
+    public VerifiedToken get(String token) {
+        VerifiedToken cached = tokens.getIfPresent(digest(token));
+        if (cached != null && cached.expiresAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return cached;
+    }
+
+    public void put(String token, UserDetailsImpl principal, long expiresAtMillis) {
+        String key = digest(token);
+        digestsByUser.computeIfAbsent(principal.getId(), id -> ConcurrentHashMap.newKeySet()).add(key);
+        tokens.put(key, new VerifiedToken(principal, expiresAtMillis));
+    }
+
+    /**
+     * Drops every cached token that belongs to the user.
+     */
+    public int evictUser(Long userId) {
+        Set<String> keys = digestsByUser.remove(userId);
+        if (keys == null) {
+            return 0;
+        }
+        tokens.invalidateAll(keys);
+        return keys.size();
+    }
+
+    public long size() {
+        return tokens.estimatedSize();
+    }
+
+    private void untrack(Long userId, String key) {
+        digestsByUser.computeIfPresent(userId, (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.inventory.smart.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Full alert generation pass: reconciles stock alerts for every item and queues every
+ * tracked expiry date for re-evaluation. Runs on a schedule and on demand; only one
+ * run is ever in flight, and callers that arrive during a run wait for its result
+ * instead of starting another.
+ */
+@Service
+public class AlertGenerationJob {
+    private static final Logger logger = LoggerFactory.getLogger(AlertGenerationJob.class);
+
+    @Autowired
+    private StockAlertEvaluator stockAlertEvaluator;
+
+    @Autowired
+    private ExpiryAlertScheduler expiryAlertScheduler;
+
+    private final AtomicReference<CompletableFuture<RunStats>> inFlight = new AtomicReference<>();
+
+    private final AtomicLong runs = new AtomicLong();
+
+    private final AtomicLong coalescedCalls = new AtomicLong();
+
+    private volatile RunStats lastRun;
+
+    public record RunStats(LocalDateTime startedAt, long durationMs, int itemsScanned, int stockAlertsRaised,
+                           int stockAlertsResolved, int expiryItemsQueued) {
+    }
+
+    @Scheduled(cron = "${app.alerts.generation.cron:0 0 * * * *}")
+    public void scheduledRun() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            logger.error("Alert generation failed: {}", e.getMessage());
+        }
+    }
+
+    public RunStats run() {
+        CompletableFuture<RunStats> mine = new CompletableFuture<>();
+        CompletableFuture<RunStats> running = inFlight.compareAndExchange(null, mine);
+        if (running != null) {
+            coalescedCalls.incrementAndGet();
+            return running.join();
+        }
+
+        try {
+            RunStats stats = execute();
+            lastRun = stats;
+            runs.incrementAndGet();
+            mine.complete(stats);
+            return stats;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", inFlight.get() != null);
+        stats.put("runs", runs.get());
+        stats.put("coalescedCalls", coalescedCalls.get());
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+
+    private RunStats execute() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        AlertSync.Outcome stock = stockAlertEvaluator.reconcile();
+        int expiryItems = expiryAlertScheduler.reconcile();
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+
+        RunStats stats = new RunStats(startedAt, durationMs, stock.items(), stock.raised(), stock.resolved(), expiryItems);
+        logger.info("Alert generation took {} ms: {} items, {} stock alerts raised, {} resolved, {} expiry items queued",
+                durationMs, stock.items(), stock.raised(), stock.resolved(), expiryItems);
+        return stats;
+    }
+}
@@ -0,0 +1,97 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.model.Item;
+import com.inventory.smart.model.StockAlert;
+import com.inventory.smart.model.StockAlert.AlertStatus;
+import com.inventory.smart.model.StockAlert.AlertType;
+import com.inventory.smart.repository.ItemRepository;
+import com.inventory.smart.repository.StockAlertRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Brings the alerts of a family of types in line with what a batch of items requires.
+ * Existing alerts are read as (id, item, type, status) keys only; stale ones are
+ * resolved with one UPDATE and new ones are inserted with one saveAll.
+ *
+ * An alert belongs to its (item, type) episode until a sync sees the condition clear.
+ * One a user resolved or ignored during the episode therefore still counts, so the
+ * alert is not raised again until the condition has cleared and come back.
+ */
+@Service
+public class AlertSync {
+    private static final String RESOLVED_BY = "system";
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private StockAlertRepository alertRepository;
+
+    public record Outcome(int items, int raised, int resolved) {
+        public static final Outcome NONE = new Outcome(0, 0, 0);
+
+        public Outcome plus(Outcome other) {
+            return new Outcome(items + other.items, raised + other.raised, resolved + other.resolved);
+        }
+    }
+
+    /**
+     * @param required the alert type an item should currently have, or null for none
+     * @param message  the message for a newly raised alert
+     */
+    @Transactional
+    public Outcome sync(Collection<Long> itemIds, Set<AlertType> types, Function<Item, AlertType> required,
+                        Function<Item, String> message) {
+        Map<Long, Map<AlertType, List<Object[]>>> unclearedByItem = new HashMap<>();
+        for (Object[] row : alertRepository.findUnclearedAlertKeys(itemIds, types)) {
+            unclearedByItem.computeIfAbsent((Long) row[1], id -> new HashMap<>())
+                    .computeIfAbsent((AlertType) row[2], type -> new ArrayList<>()).add(row);
+        }
+
+        List<Long> stale = new ArrayList<>();
+        List<Long> cleared = new ArrayList<>();
+        List<StockAlert> raised = new ArrayList<>();
+        List<Item> items = itemRepository.findAllById(itemIds);
+        for (Item item : items) {
+            AlertType type = required.apply(item);
+            Map<AlertType, List<Object[]>> uncleared = unclearedByItem.getOrDefault(item.getId(), Map.of());
+            uncleared.forEach((unclearedType, rows) -> {
+                if (unclearedType != type) {
+                    for (Object[] row : rows) {
+                        (row[3] == AlertStatus.ACTIVE ? stale : cleared).add((Long) row[0]);
+                    }
+                }
+            });
+            if (type != null && !uncleared.containsKey(type)) {
+                StockAlert alert = new StockAlert();
+                alert.setItem(item);
+                alert.setAlertType(type);
+                alert.setMessage(message.apply(item));
+                alert.setStatus(AlertStatus.ACTIVE);
+                raised.add(alert);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!stale.isEmpty()) {
+            alertRepository.updateStatus(stale, AlertStatus.RESOLVED, now, RESOLVED_BY);
+            cleared.addAll(stale);
+        }
+        if (!cleared.isEmpty()) {
+            alertRepository.markCleared(cleared, now);
+        }
+        alertRepository.saveAll(raised);
+        return new Outcome(items.size(), raised.size(), stale.size());
+    }
+}
@@ -0,0 +1,171 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.repository.ItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-category item counts, loaded with one grouped query and then maintained by the
+ * item write endpoints so category listings never have to count the items table. A
+ * periodic recount replaces them and reports any drift it finds.
+ */
+@Service
+public class CategoryItemCounts {
+    private static final Logger logger = LoggerFactory.getLogger(CategoryItemCounts.class);
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private volatile Map<Long, Integer> counts = new ConcurrentHashMap<>();
+
+    // Non-null while a recount is querying; categories changed meanwhile keep their running count
+    private Set<Long> touchedDuringRecount;
+
+    // A lock rather than a monitor because it is held across the count query
+    private final ReentrantLock recountLock = new ReentrantLock();
+
+    private volatile LocalDateTime lastRecountedAt;
+
+    private volatile Map<String, Object> lastDrift;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        recount();
+        logger.info("Loaded item counts for {} categories", counts.size());
+    }
+
+    @Scheduled(cron = "${app.categories.counts.recount-cron:0 40 * * * *}")
+    public void scheduledRecount() {
+        try {
+            recount();
+        } catch (RuntimeException e) {
+            logger.error("Category item recount failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Counts the items table again and swaps in the result. Returns the categories whose
+     * running count differed from the recount, and by how much.
+     */
+    public Map<String, Object> recount() {
+        recountLock.lock();
+        try {
+            synchronized (this) {
+                touchedDuringRecount = new HashSet<>();
+            }
+            try {
+                Map<Long, Integer> loaded = new ConcurrentHashMap<>();
+                for (Object[] row : itemRepository.countItemsGroupedByCategory()) {
+                    loaded.put((Long) row[0], ((Long) row[1]).intValue());
+                }
+                synchronized (this) {
+                    return swap(loaded);
+                }
+            } finally {
+                synchronized (this) {
+                    touchedDuringRecount = null;
+                }
+            }
+        } finally {
+            recountLock.unlock();
+        }
+    }
+
+    private Map<String, Object> swap(Map<Long, Integer> loaded) {
+        // The query may have run before or after a concurrent change was counted here, so
+        // those categories keep the running count and are left out of the comparison
+        for (Long categoryId : touchedDuringRecount) {
+            Integer running = counts.get(categoryId);
+            if (running != null) {
+                loaded.put(categoryId, running);
+            } else {
+                loaded.remove(categoryId);
+            }
+        }
+
+        List<Map<String, Object>> drifted = new ArrayList<>();
+        Set<Long> categoryIds = new HashSet<>(counts.keySet());
+        categoryIds.addAll(loaded.keySet());
+        for (Long categoryId : categoryIds) {
+            int running = counts.getOrDefault(categoryId, 0);
+            int counted = loaded.getOrDefault(categoryId, 0);
+            if (running != counted) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("categoryId", categoryId);
+                entry.put("running", running);
+                entry.put("counted", counted);
+                drifted.add(entry);
+            }
+        }
+        Map<String, Object> drift = new LinkedHashMap<>();
+        drift.put("categories", drifted);
+        if (lastRecountedAt != null && !drifted.isEmpty()) {
+            logger.warn("Category item counts drifted from the items table: {}", drifted);
+        }
+
+        counts = loaded;
+        lastRecountedAt = LocalDateTime.now();
+        lastDrift = drift;
+        return drift;
+    }
+
+    public int getCount(Long categoryId) {
+        return counts.getOrDefault(categoryId, 0);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("categories", counts.size());
+        stats.put("lastRecountedAt", lastRecountedAt);
+        stats.put("lastDrift", lastDrift);
+        return stats;
+    }
+
+    public synchronized void itemAdded(Long categoryId) {
+        if (categoryId != null) {
+            touched(categoryId);
+            counts.merge(categoryId, 1, Integer::sum);
+        }
+    }
+
+    public synchronized void itemRemoved(Long categoryId) {
+        if (categoryId != null) {
+            touched(categoryId);
+            counts.computeIfPresent(categoryId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    public void itemMoved(Long fromCategoryId, Long toCategoryId) {
+        if (!Objects.equals(fromCategoryId, toCategoryId)) {
+            itemRemoved(fromCategoryId);
+            itemAdded(toCategoryId);
+        }
+    }
+
+    public synchronized void categoryRemoved(Long categoryId) {
+        touched(categoryId);
+        counts.remove(categoryId);
+    }
+
+    private void touched(Long categoryId) {
+        if (touchedDuringRecount != null) {
+            touchedDuringRecount.add(categoryId);
+        }
+    }
+}
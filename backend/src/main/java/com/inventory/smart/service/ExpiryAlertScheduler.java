@@ -0,0 +1,233 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.model.Item;
+import com.inventory.smart.model.StockAlert.AlertType;
+import com.inventory.smart.repository.ItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Raises EXPIRY_APPROACHING and EXPIRED alerts when an item's expiry thresholds are
+ * crossed. The expiry date of every active item is held in memory together with a
+ * priority queue of threshold deadlines, so each tick only looks at the head of the
+ * queue and the items table is read once at startup. Item writes reschedule the item.
+ */
+@Service
+public class ExpiryAlertScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(ExpiryAlertScheduler.class);
+
+    private static final Set<AlertType> EXPIRY_ALERT_TYPES = EnumSet.of(AlertType.EXPIRY_APPROACHING, AlertType.EXPIRED);
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private AlertSync alertSync;
+
+    @Value("${app.alerts.expiry.approaching-days:30}")
+    private int approachingDays;
+
+    @Value("${app.alerts.expiry.expired-after-days:0}")
+    private int expiredAfterDays;
+
+    @Value("${app.alerts.expiry.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Long, LocalDate> expiryDates = new ConcurrentHashMap<>();
+
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>();
+
+    private final AtomicLong raised = new AtomicLong();
+
+    private final AtomicLong resolved = new AtomicLong();
+
+    private final ReentrantLock evaluateLock = new ReentrantLock();
+
+    private volatile boolean loaded;
+
+    private record Deadline(LocalDateTime fireAt, Long itemId, LocalDate expiryDate) implements Comparable<Deadline> {
+        @Override
+        public int compareTo(Deadline other) {
+            return fireAt.compareTo(other.fireAt);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Long afterId = 0L;
+        List<Object[]> rows;
+        while (!(rows = itemRepository.findExpiryDatesAfter(afterId, PageRequest.of(0, batchSize))).isEmpty()) {
+            for (Object[] row : rows) {
+                track((Long) row[0], (LocalDate) row[1], false);
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        loaded = true;
+        logger.info("Expiry scheduler tracking {} items", expiryDates.size());
+    }
+
+    /**
+     * Must be called after an item is created or edited.
+     */
+    public void itemChanged(Item item) {
+        if (item.isActive() && item.getExpiryDate() != null) {
+            track(item.getId(), item.getExpiryDate(), true);
+        } else {
+            expiryDates.remove(item.getId());
+            // Evaluate once more so alerts for a cleared date or inactive item are resolved
+            push(new Deadline(LocalDateTime.now(), item.getId(), null));
+        }
+    }
+
+    public void itemRemoved(Long itemId) {
+        expiryDates.remove(itemId);
+    }
+
+    /**
+     * Re-evaluates every tracked item on the next tick.
+     */
+    public int reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        expiryDates.forEach((itemId, expiryDate) -> push(new Deadline(now, itemId, expiryDate)));
+        return expiryDates.size();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedItems", expiryDates.size());
+        synchronized (deadlines) {
+            stats.put("scheduledDeadlines", deadlines.size());
+            Deadline next = deadlines.peek();
+            stats.put("nextDeadline", next != null ? next.fireAt() : null);
+        }
+        stats.put("raised", raised.get());
+        stats.put("resolved", resolved.get());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${app.alerts.expiry.check-interval-ms:1000}")
+    public void fireDueDeadlines() {
+        if (!loaded) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> due = new LinkedHashSet<>();
+        synchronized (deadlines) {
+            while (!deadlines.isEmpty() && !deadlines.peek().fireAt().isAfter(now)) {
+                Deadline deadline = deadlines.poll();
+                // Deadlines left over from an earlier expiry date are skipped
+                if (Objects.equals(expiryDates.get(deadline.itemId()), deadline.expiryDate())) {
+                    due.add(deadline.itemId());
+                }
+            }
+        }
+
+        List<Long> batch = new ArrayList<>(batchSize);
+        for (Long itemId : due) {
+            batch.add(itemId);
+            if (batch.size() == batchSize) {
+                evaluateOrRetry(batch, now);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            evaluateOrRetry(batch, now);
+        }
+    }
+
+    private void track(Long itemId, LocalDate expiryDate, boolean evaluateNow) {
+        LocalDate previous = expiryDates.put(itemId, expiryDate);
+        LocalDateTime now = LocalDateTime.now();
+        boolean dueNow = false;
+        for (LocalDateTime threshold : List.of(approachingAt(expiryDate), expiredAt(expiryDate))) {
+            if (!threshold.isAfter(now)) {
+                dueNow = true;
+            } else if (!expiryDate.equals(previous)) {
+                // An unchanged date already has its future deadlines queued
+                push(new Deadline(threshold, itemId, expiryDate));
+            }
+        }
+        // A crossed threshold fires on the next tick; an edit is always re-evaluated so
+        // alerts for the previous date get resolved
+        if (dueNow || evaluateNow) {
+            push(new Deadline(now, itemId, expiryDate));
+        }
+    }
+
+    private void push(Deadline deadline) {
+        synchronized (deadlines) {
+            deadlines.add(deadline);
+        }
+    }
+
+    private LocalDateTime approachingAt(LocalDate expiryDate) {
+        return expiryDate.minusDays(approachingDays).atStartOfDay();
+    }
+
+    private LocalDateTime expiredAt(LocalDate expiryDate) {
+        return expiryDate.plusDays(expiredAfterDays).atStartOfDay();
+    }
+
+    private void evaluateOrRetry(List<Long> itemIds, LocalDateTime now) {
+        try {
+            evaluate(itemIds, now);
+        } catch (RuntimeException e) {
+            logger.error("Expiry alert evaluation failed: {}", e.getMessage());
+            itemIds.forEach(itemId -> push(new Deadline(now, itemId, expiryDates.get(itemId))));
+        }
+    }
+
+    private void evaluate(List<Long> itemIds, LocalDateTime now) {
+        evaluateLock.lock();
+        try {
+            AlertSync.Outcome outcome = alertSync.sync(itemIds, EXPIRY_ALERT_TYPES,
+                    item -> requiredAlert(item, now), item -> message(item, now));
+            raised.addAndGet(outcome.raised());
+            resolved.addAndGet(outcome.resolved());
+        } finally {
+            evaluateLock.unlock();
+        }
+    }
+
+    private AlertType requiredAlert(Item item, LocalDateTime now) {
+        if (!item.isActive() || item.getExpiryDate() == null) {
+            return null;
+        }
+        if (!expiredAt(item.getExpiryDate()).isAfter(now)) {
+            return AlertType.EXPIRED;
+        }
+        if (!approachingAt(item.getExpiryDate()).isAfter(now)) {
+            return AlertType.EXPIRY_APPROACHING;
+        }
+        return null;
+    }
+
+    private String message(Item item, LocalDateTime now) {
+        if (requiredAlert(item, now) == AlertType.EXPIRED) {
+            return "Expired alert: " + item.getName() + " expired on " + item.getExpiryDate();
+        }
+        return "Expiry alert: " + item.getName() + " will expire on " + item.getExpiryDate();
+    }
+}
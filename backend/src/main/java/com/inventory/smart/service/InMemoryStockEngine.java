@@ -0,0 +1,347 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.model.Transaction.TransactionType;
+import com.inventory.smart.repository.ItemRepository;
+import com.inventory.smart.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional in-process stock engine for hot SKUs, enabled with app.stock.engine.mode=memory.
+ *
+ * Each item's stock lives in an {@link AtomicInteger}, so reserve/release are a CAS
+ * instead of a row lock. Every accepted change is still written synchronously to the
+ * transactions ledger with stock_applied = false; a periodic flush folds those rows into
+ * items.current_stock in batches and marks them applied. On startup the same flush
+ * replays whatever a crashed process left behind. Only one application instance may
+ * run with this engine against a database.
+ */
+@Service
+@ConditionalOnProperty(name = "app.stock.engine.mode", havingValue = "memory")
+public class InMemoryStockEngine {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryStockEngine.class);
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ItemLookupCache itemLookupCache;
+
+    @Autowired
+    private StockAlertEvaluator stockAlertEvaluator;
+
+    @Autowired
+    private InventoryValuation inventoryValuation;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.stock.engine.flush-batch-size:5000}")
+    private int flushBatchSize;
+
+    private final Map<Long, AtomicInteger> levels = new ConcurrentHashMap<>();
+
+    // Per item, database transactions that changed the counter and have not completed yet
+    private final Map<Long, Integer> openChanges = new ConcurrentHashMap<>();
+
+    private final Set<Long> deferredEvictions = ConcurrentHashMap.newKeySet();
+
+    // Lets a snapshot hold off new changes until the open ones have completed
+    private final ReentrantLock gate = new ReentrantLock();
+
+    private final Condition gateChanged = gate.newCondition();
+
+    private boolean paused;
+
+    private int openTotal;
+
+    // Open changes of the current thread, which may keep opening more while paused
+    private final ThreadLocal<int[]> openByThread = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final AtomicLong flushedRows = new AtomicLong();
+
+    private final AtomicLong flushCount = new AtomicLong();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionTemplate readOnlyTemplate;
+
+    private static class PendingChange {
+        private Integer absolute;
+        private int delta;
+    }
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int replayed = 0;
+        int batch;
+        while ((batch = flush()) > 0) {
+            replayed += batch;
+        }
+        logger.info("Stock engine started; replayed {} unapplied ledger rows", replayed);
+    }
+
+    /**
+     * Takes quantity out of the available stock if enough is left.
+     */
+    public StockService.Result reserve(Long itemId, int quantity) {
+        AtomicInteger level = level(itemId);
+        if (level == null) {
+            return StockService.Result.NOT_FOUND;
+        }
+        int current;
+        do {
+            current = level.get();
+            if (current < quantity) {
+                return StockService.Result.INSUFFICIENT_STOCK;
+            }
+        } while (!level.compareAndSet(current, current - quantity));
+        return StockService.Result.APPLIED;
+    }
+
+    /**
+     * Returns previously reserved quantity, e.g. when the owning transaction rolls back.
+     */
+    public void release(Long itemId, int quantity) {
+        AtomicInteger level = levels.get(itemId);
+        if (level != null) {
+            level.addAndGet(quantity);
+        }
+    }
+
+    public StockService.Result add(Long itemId, int quantity) {
+        AtomicInteger level = level(itemId);
+        if (level == null) {
+            return StockService.Result.NOT_FOUND;
+        }
+        level.addAndGet(quantity);
+        return StockService.Result.APPLIED;
+    }
+
+    /**
+     * Sets an absolute level and returns the previous one, or null if the item does not exist.
+     */
+    public Integer set(Long itemId, int quantity) {
+        AtomicInteger level = level(itemId);
+        return level != null ? level.getAndSet(quantity) : null;
+    }
+
+    /**
+     * Marks the start of a change to the item's counter by a database transaction. Must be
+     * paired with {@link #closeChange} once that transaction has completed.
+     */
+    public void openChange(Long itemId) {
+        int[] ownOpen = openByThread.get();
+        gate.lock();
+        try {
+            // A thread that already has changes open must not wait, or a pause would never drain
+            while (paused && ownOpen[0] == 0) {
+                gateChanged.awaitUninterruptibly();
+            }
+            openTotal++;
+        } finally {
+            gate.unlock();
+        }
+        ownOpen[0]++;
+        openChanges.merge(itemId, 1, Integer::sum);
+    }
+
+    public void closeChange(Long itemId) {
+        openByThread.get()[0]--;
+        gate.lock();
+        try {
+            if (--openTotal == 0) {
+                gateChanged.signalAll();
+            }
+        } finally {
+            gate.unlock();
+        }
+        openChanges.compute(itemId, (id, open) -> {
+            if (open != null && open > 1) {
+                return open - 1;
+            }
+            if (deferredEvictions.remove(id)) {
+                levels.remove(id);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Stops new changes from starting and waits until the open ones have completed. Must be
+     * paired with {@link #resumeChanges}.
+     */
+    public void pauseChanges() {
+        gate.lock();
+        try {
+            paused = true;
+            while (openTotal > 0) {
+                gateChanged.awaitUninterruptibly();
+            }
+        } finally {
+            gate.unlock();
+        }
+    }
+
+    public void resumeChanges() {
+        gate.lock();
+        try {
+            paused = false;
+            gateChanged.signalAll();
+        } finally {
+            gate.unlock();
+        }
+    }
+
+    /**
+     * Drops the cached level so it is reloaded from the database, e.g. after an item is
+     * deleted. While a transaction that changed the counter is still open the eviction is
+     * deferred until it completes, so a rollback compensates the counter it changed rather
+     * than one reloaded without its ledger row.
+     */
+    public void evict(Long itemId) {
+        openChanges.compute(itemId, (id, open) -> {
+            if (open == null) {
+                levels.remove(id);
+            } else {
+                deferredEvictions.add(id);
+            }
+            return open;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedItems", levels.size());
+        stats.put("itemsWithOpenChanges", openChanges.size());
+        stats.put("flushes", flushCount.get());
+        stats.put("flushedRows", flushedRows.get());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.engine.flush-interval-ms:500}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Stock engine flush failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applies one batch of unapplied ledger rows to the items table. Returns the number
+     * of ledger rows applied.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<Long> touched = new ArrayList<>();
+            Integer applied = transactionTemplate.execute(status -> {
+                List<Object[]> rows = transactionRepository.findUnappliedStockChanges(
+                        PageRequest.of(0, flushBatchSize));
+                if (rows.isEmpty()) {
+                    return 0;
+                }
+
+                Map<Long, PendingChange> changes = new TreeMap<>();
+                List<Long> ledgerIds = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    ledgerIds.add((Long) row[0]);
+                    apply(changes.computeIfAbsent((Long) row[1], id -> new PendingChange()),
+                            (TransactionType) row[2], (Integer) row[3]);
+                }
+
+                changes.forEach((itemId, change) -> {
+                    if (change.absolute != null) {
+                        itemRepository.setStock(itemId, change.absolute + change.delta);
+                    } else if (change.delta != 0) {
+                        itemRepository.incrementStock(itemId, change.delta);
+                    }
+                });
+                transactionRepository.markStockApplied(ledgerIds);
+                touched.addAll(changes.keySet());
+                return rows.size();
+            });
+
+            if (applied != null && applied > 0) {
+                touched.forEach(itemLookupCache::invalidate);
+                stockAlertEvaluator.itemsChanged(touched);
+                inventoryValuation.itemsChanged(touched);
+                flushCount.incrementAndGet();
+                flushedRows.addAndGet(applied);
+                return applied;
+            }
+            return 0;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private AtomicInteger level(Long itemId) {
+        AtomicInteger level = levels.get(itemId);
+        if (level != null) {
+            return level;
+        }
+        return levels.computeIfAbsent(itemId, this::loadLevel);
+    }
+
+    // Flushed stock plus whatever the ledger holds that has not been flushed yet
+    private AtomicInteger loadLevel(Long itemId) {
+        return readOnlyTemplate.execute(status -> itemRepository.findById(itemId)
+                .map(item -> {
+                    PendingChange change = new PendingChange();
+                    for (Object[] row : transactionRepository.findUnappliedStockChangesForItem(itemId)) {
+                        apply(change, (TransactionType) row[0], (Integer) row[1]);
+                    }
+                    int stock = change.absolute != null ? change.absolute : item.getCurrentStock();
+                    return new AtomicInteger(stock + change.delta);
+                })
+                .orElse(null));
+    }
+
+    private void apply(PendingChange change, TransactionType type, int quantity) {
+        if (type == TransactionType.STOCK_IN) {
+            change.delta += quantity;
+        } else if (type == TransactionType.STOCK_OUT) {
+            change.delta -= quantity;
+        } else if (type == TransactionType.ADJUSTMENT) {
+            change.absolute = quantity;
+            change.delta = 0;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.repository.ItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Running inventory value at cost (costPrice * currentStock) and at retail
+ * (sellingPrice * currentStock), overall and per category. Each item's last known
+ * contribution is kept, so a stock or price change only swaps that one contribution.
+ * Writes mark items dirty and a background pass applies them; a periodic full
+ * recomputation replaces the totals and reports any drift it finds.
+ */
+@Service
+public class InventoryValuation {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryValuation.class);
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Value("${app.valuation.batch-size:1000}")
+    private int batchSize;
+
+    private record Contribution(Long categoryId, BigDecimal cost, BigDecimal retail, long units) {
+    }
+
+    private static class Totals {
+        private BigDecimal cost = BigDecimal.ZERO;
+        private BigDecimal retail = BigDecimal.ZERO;
+        private long units;
+        private int items;
+
+        private void add(Contribution contribution, int sign) {
+            BigDecimal factor = BigDecimal.valueOf(sign);
+            cost = cost.add(contribution.cost().multiply(factor));
+            retail = retail.add(contribution.retail().multiply(factor));
+            units += sign * contribution.units();
+            items += sign;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("costValue", cost);
+            map.put("retailValue", retail);
+            map.put("units", units);
+            map.put("items", items);
+            return map;
+        }
+    }
+
+    private final Set<Long> dirtyItemIds = ConcurrentHashMap.newKeySet();
+
+    // Guarded by this, together with the totals
+    private Map<Long, Contribution> contributions = new HashMap<>();
+
+    private Map<Long, Totals> byCategory = new HashMap<>();
+
+    private Totals overall = new Totals();
+
+    private LocalDateTime lastRecomputedAt;
+
+    private Map<String, Object> lastDrift;
+
+    // Non-null while a recompute is scanning; items applied meanwhile are re-applied after the swap
+    private Set<Long> touchedDuringRecompute;
+
+    // A lock rather than a monitor because it is held across the item scan
+    private final ReentrantLock recomputeLock = new ReentrantLock();
+
+    public void itemChanged(Long itemId) {
+        if (itemId != null) {
+            dirtyItemIds.add(itemId);
+        }
+    }
+
+    public void itemsChanged(Collection<Long> itemIds) {
+        itemIds.forEach(this::itemChanged);
+    }
+
+    public synchronized void itemRemoved(Long itemId) {
+        dirtyItemIds.remove(itemId);
+        replace(itemId, null);
+    }
+
+    public synchronized Map<String, Object> getValuation() {
+        Map<String, Object> valuation = overall.toMap();
+        List<Map<String, Object>> categories = new ArrayList<>(byCategory.size());
+        byCategory.forEach((categoryId, totals) -> {
+            Map<String, Object> category = new LinkedHashMap<>();
+            category.put("categoryId", categoryId);
+            category.putAll(totals.toMap());
+            categories.add(category);
+        });
+        valuation.put("categories", categories);
+        valuation.put("pendingItems", dirtyItemIds.size());
+        valuation.put("lastRecomputedAt", lastRecomputedAt);
+        valuation.put("lastDrift", lastDrift);
+        return valuation;
+    }
+
+    @Scheduled(fixedDelayString = "${app.valuation.update-interval-ms:250}")
+    public void applyPending() {
+        while (!dirtyItemIds.isEmpty()) {
+            List<Long> batch = new ArrayList<>(Math.min(batchSize, dirtyItemIds.size()));
+            Iterator<Long> iterator = dirtyItemIds.iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            try {
+                List<Object[]> rows = itemRepository.findValuationRows(batch);
+                synchronized (this) {
+                    Set<Long> missing = new HashSet<>(batch);
+                    for (Object[] row : rows) {
+                        missing.remove((Long) row[0]);
+                        replace((Long) row[0], toContribution(row));
+                    }
+                    missing.forEach(itemId -> replace(itemId, null));
+                }
+            } catch (RuntimeException e) {
+                dirtyItemIds.addAll(batch);
+                logger.error("Valuation update failed: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        recompute();
+    }
+
+    @Scheduled(cron = "${app.valuation.recompute-cron:0 30 * * * *}")
+    public void scheduledRecompute() {
+        try {
+            recompute();
+        } catch (RuntimeException e) {
+            logger.error("Valuation recompute failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds every contribution from the items table and swaps in the result. Returns
+     * the difference between the running totals and the recomputed ones. The scan runs
+     * without holding the valuation lock, so reads are not blocked meanwhile.
+     */
+    public Map<String, Object> recompute() {
+        recomputeLock.lock();
+        try {
+            synchronized (this) {
+                touchedDuringRecompute = new HashSet<>();
+            }
+            try {
+                return rebuild();
+            } finally {
+                synchronized (this) {
+                    touchedDuringRecompute = null;
+                }
+            }
+        } finally {
+            recomputeLock.unlock();
+        }
+    }
+
+    private Map<String, Object> rebuild() {
+        Map<Long, Contribution> fresh = new HashMap<>();
+        Long afterId = 0L;
+        List<Object[]> rows;
+        while (!(rows = itemRepository.findValuationRowsAfter(afterId, PageRequest.of(0, batchSize))).isEmpty()) {
+            for (Object[] row : rows) {
+                fresh.put((Long) row[0], toContribution(row));
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+
+        Map<Long, Totals> freshByCategory = new HashMap<>();
+        Totals freshOverall = new Totals();
+        fresh.values().forEach(contribution -> {
+            freshOverall.add(contribution, 1);
+            freshByCategory.computeIfAbsent(contribution.categoryId(), id -> new Totals()).add(contribution, 1);
+        });
+
+        synchronized (this) {
+            return swap(fresh, freshByCategory, freshOverall);
+        }
+    }
+
+    private Map<String, Object> swap(Map<Long, Contribution> fresh, Map<Long, Totals> freshByCategory,
+                                     Totals freshOverall) {
+        Map<String, Object> drift = new LinkedHashMap<>();
+        drift.put("costValue", overall.cost.subtract(freshOverall.cost));
+        drift.put("retailValue", overall.retail.subtract(freshOverall.retail));
+        drift.put("units", overall.units - freshOverall.units);
+        if (lastRecomputedAt != null && (overall.cost.compareTo(freshOverall.cost) != 0
+                || overall.retail.compareTo(freshOverall.retail) != 0 || overall.units != freshOverall.units)) {
+            logger.warn("Inventory valuation drifted from the items table: {}", drift);
+        }
+
+        contributions = fresh;
+        byCategory = freshByCategory;
+        overall = freshOverall;
+        lastRecomputedAt = LocalDateTime.now();
+        lastDrift = drift;
+        // The scan may have read these items before their latest change
+        dirtyItemIds.addAll(touchedDuringRecompute);
+        return drift;
+    }
+
+    private Contribution toContribution(Object[] row) {
+        BigDecimal costPrice = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+        BigDecimal sellingPrice = row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO;
+        long units = row[4] != null ? (Integer) row[4] : 0;
+        BigDecimal quantity = BigDecimal.valueOf(units);
+        return new Contribution((Long) row[1], costPrice.multiply(quantity), sellingPrice.multiply(quantity), units);
+    }
+
+    private void replace(Long itemId, Contribution contribution) {
+        if (touchedDuringRecompute != null) {
+            touchedDuringRecompute.add(itemId);
+        }
+        Contribution previous = contribution != null
+                ? contributions.put(itemId, contribution)
+                : contributions.remove(itemId);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        if (contribution != null) {
+            apply(contribution, 1);
+        }
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        overall.add(contribution, sign);
+        Totals totals = byCategory.computeIfAbsent(contribution.categoryId(), id -> new Totals());
+        totals.add(contribution, sign);
+        if (totals.items == 0) {
+            byCategory.remove(contribution.categoryId());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.inventory.smart.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.inventory.smart.model.Item;
+import com.inventory.smart.repository.ItemRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-evicting cache in front of the item id and SKU lookups used by scanners.
+ * Every endpoint that writes an item or its stock must call {@link #invalidate}.
+ */
+@Service
+public class ItemLookupCache {
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Value("${app.items.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.items.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Cache<Long, Item> itemsById;
+
+    private Cache<String, Long> idsBySku;
+
+    @PostConstruct
+    public void init() {
+        itemsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        idsBySku = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    // Loads go through Cache.get so an invalidate() issued mid-load waits for it and then
+    // discards the result, instead of a late put() re-inserting the pre-write row
+    public Optional<Item> findById(Long id) {
+        return Optional.ofNullable(itemsById.get(id, key -> itemRepository.findById(key).orElse(null)));
+    }
+
+    public Optional<Item> findBySku(String sku) {
+        Long id = idsBySku.get(sku, this::loadIdBySku);
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<Item> item = findById(id);
+        if (item.isPresent() && sku.equals(item.get().getSku())) {
+            return item;
+        }
+
+        // The mapping outlived a SKU change or a delete; resolve the SKU again
+        idsBySku.invalidate(sku);
+        Long currentId = idsBySku.get(sku, this::loadIdBySku);
+        return currentId == null ? Optional.empty() : findById(currentId).filter(found -> sku.equals(found.getSku()));
+    }
+
+    public void invalidate(Long itemId) {
+        Item cached = itemsById.getIfPresent(itemId);
+        if (cached != null) {
+            idsBySku.invalidate(cached.getSku());
+        }
+        itemsById.invalidate(itemId);
+    }
+
+    public void invalidateAll() {
+        itemsById.invalidateAll();
+        idsBySku.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("byId", toMap(itemsById.stats(), itemsById.estimatedSize()));
+        stats.put("bySku", toMap(idsBySku.stats(), idsBySku.estimatedSize()));
+        return stats;
+    }
+
+    private Long loadIdBySku(String sku) {
+        return itemRepository.findIdBySku(sku).orElse(null);
+    }
+
+    private Map<String, Object> toMap(CacheStats cacheStats, long size) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("hits", cacheStats.hitCount());
+        stats.put("misses", cacheStats.missCount());
+        stats.put("hitRate", cacheStats.hitRate());
+        stats.put("evictions", cacheStats.evictionCount());
+        return stats;
+    }
+}
@@ -0,0 +1,322 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.model.Item;
+import com.inventory.smart.repository.ItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process n-gram index over item names and SKUs. Every one-, two- and three-character
+ * substring has a posting list, so a query of any length starts from indexed candidates.
+ * Built once at startup and kept current by the item write endpoints, so search never
+ * issues a LIKE '%x%' scan.
+ */
+@Service
+public class ItemSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ItemSearchIndex.class);
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, IndexedItem> documents = new HashMap<>();
+
+    private Map<Long, Set<Long>> postings = new HashMap<>();
+
+    // Non-null while a rebuild is scanning; items indexed or removed meanwhile are re-applied after the swap
+    private Set<Long> touchedDuringRebuild;
+
+    // Serializes rebuilds, which hold it across the item scan
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile long lastBuildMillis;
+
+    private record IndexedItem(String name, String sku) {
+    }
+
+    public record SearchHit(Long itemId, int score) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                touchedDuringRebuild = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                scanAndSwap();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    touchedDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void scanAndSwap() {
+        long start = System.currentTimeMillis();
+        Map<Long, IndexedItem> newDocuments = new HashMap<>();
+        Map<Long, Set<Long>> newPostings = new HashMap<>();
+
+        long afterId = 0;
+        List<Object[]> batch;
+        do {
+            batch = itemRepository.findSearchKeysAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Object[] row : batch) {
+                Long id = (Long) row[0];
+                IndexedItem doc = new IndexedItem(normalize((String) row[1]), normalize((String) row[2]));
+                newDocuments.put(id, doc);
+                addPostings(newPostings, id, doc);
+                afterId = id;
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        int reapplied;
+        lock.writeLock().lock();
+        try {
+            // The scan may have read these items before their latest change; the live maps hold it
+            Map<Long, IndexedItem> liveDocuments = documents;
+            documents = newDocuments;
+            postings = newPostings;
+            for (Long id : touchedDuringRebuild) {
+                IndexedItem scanned = documents.remove(id);
+                if (scanned != null) {
+                    removePostings(id, scanned);
+                }
+                IndexedItem live = liveDocuments.get(id);
+                if (live != null) {
+                    documents.put(id, live);
+                    addPostings(postings, id, live);
+                }
+            }
+            reapplied = touchedDuringRebuild.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        lastBuildMillis = System.currentTimeMillis() - start;
+        logger.info("Item search index built: {} items, {} grams in {} ms ({} re-applied after the scan)",
+                newDocuments.size(), newPostings.size(), lastBuildMillis, reapplied);
+    }
+
+    public void index(Item item) {
+        IndexedItem doc = new IndexedItem(normalize(item.getName()), normalize(item.getSku()));
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.add(item.getId());
+            }
+            IndexedItem previous = documents.put(item.getId(), doc);
+            if (previous != null) {
+                removePostings(item.getId(), previous);
+            }
+            addPostings(postings, item.getId(), doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.add(itemId);
+            }
+            IndexedItem previous = documents.remove(itemId);
+            if (previous != null) {
+                removePostings(itemId, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of matching item ids, best match first. A hit must contain the
+     * whole query as a substring of its name or SKU; n-grams only narrow the candidates.
+     */
+    public List<SearchHit> search(String query, int page, int size) {
+        String needle = normalize(query);
+        if (needle.isEmpty()) {
+            return List.of();
+        }
+
+        List<SearchHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(needle)) {
+                IndexedItem doc = documents.get(id);
+                int score = score(doc, needle);
+                if (score > 0) {
+                    hits.add(new SearchHit(id, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingInt(SearchHit::score).reversed().thenComparing(SearchHit::itemId));
+        int from = Math.min(page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        return hits.subList(from, to);
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            long postingEntries = 0;
+            for (Set<Long> ids : postings.values()) {
+                postingEntries += ids.size();
+            }
+            long textChars = 0;
+            for (IndexedItem doc : documents.values()) {
+                textChars += doc.name().length() + doc.sku().length();
+            }
+            // Rough estimate: ~64 bytes per map/set entry (node, boxed key) plus string payloads
+            long estimatedBytes = (documents.size() + postings.size() + postingEntries) * 64L
+                    + documents.size() * 96L + textChars * 2L;
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("items", documents.size());
+            stats.put("grams", postings.size());
+            stats.put("postingEntries", postingEntries);
+            stats.put("estimatedBytes", estimatedBytes);
+            stats.put("lastBuildMillis", lastBuildMillis);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> candidates(String needle) {
+        if (needle.length() < 3) {
+            // A short needle is itself an indexed gram, so its posting list is the exact answer
+            return postings.getOrDefault(gram(needle, 0, needle.length()), Set.of());
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (long gram : grams(needle, 3)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private int score(IndexedItem doc, String needle) {
+        if (doc.sku().equals(needle)) {
+            return 100;
+        }
+        if (doc.name().equals(needle)) {
+            return 90;
+        }
+        if (doc.sku().startsWith(needle)) {
+            return 80;
+        }
+        if (doc.name().startsWith(needle)) {
+            return 70;
+        }
+        int pos = doc.name().indexOf(needle);
+        if (pos > 0 && !Character.isLetterOrDigit(doc.name().charAt(pos - 1))) {
+            return 60;
+        }
+        if (pos >= 0) {
+            return 50;
+        }
+        if (doc.sku().contains(needle)) {
+            return 40;
+        }
+        return 0;
+    }
+
+    private void addPostings(Map<Long, Set<Long>> target, Long id, IndexedItem doc) {
+        for (long gram : documentGrams(doc)) {
+            target.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void removePostings(Long id, IndexedItem doc) {
+        for (long gram : documentGrams(doc)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private Set<Long> documentGrams(IndexedItem doc) {
+        Set<Long> grams = new HashSet<>();
+        for (int length = 1; length <= 3; length++) {
+            grams.addAll(grams(doc.name(), length));
+            grams.addAll(grams(doc.sku(), length));
+        }
+        return grams;
+    }
+
+    private Set<Long> grams(String text, int length) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + length <= text.length(); i++) {
+            grams.add(gram(text, i, length));
+        }
+        return grams;
+    }
+
+    // Packs up to three UTF-16 chars into one long so gram keys need no String allocation;
+    // the length in the top bits keeps grams of different lengths apart
+    private long gram(String text, int from, int length) {
+        long key = length;
+        for (int i = from; i < from + length; i++) {
+            key = (key << 16) | text.charAt(i);
+        }
+        return key;
+    }
+
+    private String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
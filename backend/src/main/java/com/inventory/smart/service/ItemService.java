@@ -0,0 +1,70 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.model.Item;
+import com.inventory.smart.repository.ItemRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class ItemService {
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Saves an edit to the item's details and, if the submitted stock level differs from
+     * the stored one, sets it through {@link StockService} as an adjustment, all in one
+     * transaction. current_stock is never written from the entity, so sales that land
+     * while the edit form is open are not overwritten unless the level itself was edited.
+     * With the local ledger enabled the adjustment is appended to it once the details
+     * have committed, like any other ledger-backed stock transaction.
+     */
+    public Item updateItem(Item item, Item itemDetails) {
+        Integer stock = itemDetails.getCurrentStock();
+        boolean stockEdited = stock != null && !stock.equals(item.getCurrentStock());
+
+        Item updatedItem = transactionTemplate.execute(status -> {
+            item.setName(itemDetails.getName());
+            item.setDescription(itemDetails.getDescription());
+            item.setSku(itemDetails.getSku());
+            item.setCategory(itemDetails.getCategory());
+            item.setMinimumStock(itemDetails.getMinimumStock());
+            item.setCostPrice(itemDetails.getCostPrice());
+            item.setSellingPrice(itemDetails.getSellingPrice());
+            item.setLocation(itemDetails.getLocation());
+            item.setSupplier(itemDetails.getSupplier());
+            item.setExpiryDate(itemDetails.getExpiryDate());
+            item.setImageUrl(itemDetails.getImageUrl());
+            item.setActive(itemDetails.isActive());
+            Item saved = itemRepository.save(item);
+            if (stockEdited && !stockService.isLedgerBacked()) {
+                stockService.setFromEdit(saved.getId(), stock);
+            }
+            return saved;
+        });
+
+        if (stockEdited) {
+            if (stockService.isLedgerBacked()) {
+                stockService.appendEdit(updatedItem.getId(), stock);
+            }
+            // Only for the response; the column is not updatable through the entity
+            updatedItem.setCurrentStock(stock);
+        }
+        return updatedItem;
+    }
+}
@@ -0,0 +1,54 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.model.Transaction.TransactionType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * One stock transaction as stored in the local ledger. The binary form is the record
+ * payload; framing and checksums are handled by {@link LedgerSegment}.
+ */
+public record LedgerRecord(long seq, Long itemId, Long userId, int quantity, TransactionType type, String notes,
+                           LocalDateTime createdAt, boolean stockApplied) {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    byte[] encode() {
+        byte[] noteBytes = notes != null ? notes.getBytes(StandardCharsets.UTF_8) : null;
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 8 + 8 + 4 + 1 + 1 + 8 + 4 + 4 + (noteBytes != null ? noteBytes.length : 0));
+        buffer.putLong(seq);
+        buffer.putLong(itemId);
+        buffer.putLong(userId != null ? userId : 0L);
+        buffer.putInt(quantity);
+        buffer.put((byte) type.ordinal());
+        buffer.put((byte) (stockApplied ? 1 : 0));
+        buffer.putLong(createdAt.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(createdAt.getNano());
+        buffer.putInt(noteBytes != null ? noteBytes.length : -1);
+        if (noteBytes != null) {
+            buffer.put(noteBytes);
+        }
+        return buffer.array();
+    }
+
+    static LedgerRecord decode(ByteBuffer buffer) {
+        long seq = buffer.getLong();
+        long itemId = buffer.getLong();
+        long userId = buffer.getLong();
+        int quantity = buffer.getInt();
+        TransactionType type = TYPES[buffer.get()];
+        boolean stockApplied = buffer.get() == 1;
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        int notesLength = buffer.getInt();
+        String notes = null;
+        if (notesLength >= 0) {
+            byte[] noteBytes = new byte[notesLength];
+            buffer.get(noteBytes);
+            notes = new String(noteBytes, StandardCharsets.UTF_8);
+        }
+        return new LedgerRecord(seq, itemId, userId != 0L ? userId : null, quantity, type, notes, createdAt, stockApplied);
+    }
+}
@@ -0,0 +1,185 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Copies committed {@link LocalLedger} records into the transactions table with
+ * multi-row JDBC batches. Rows are inserted with stock_applied = false, so the
+ * in-memory stock engine's flush folds them into items.current_stock. The highest
+ * replicated ledger_seq in the table is the resume point, which makes replay after
+ * a crash idempotent. A record the database rejects outright is quarantined by the
+ * ledger rather than retried, so it cannot hold up the records behind it.
+ */
+@Service
+@ConditionalOnProperty(name = "app.ledger.mode", havingValue = "local")
+public class LedgerReplicator {
+    private static final Logger logger = LoggerFactory.getLogger(LedgerReplicator.class);
+
+    private static final String INSERT_SQL = "INSERT INTO transactions " +
+            "(item_id, user_id, quantity, type, notes, created_at, stock_applied, ledger_seq) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private LocalLedger localLedger;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.ledger.replicate-batch-size:5000}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    private long replicatedSeq;
+
+    // Drained from the ledger but not yet in the database; retried on the next pass
+    private List<LedgerRecord> unsent = new ArrayList<>();
+
+    private final AtomicLong replicatedRows = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private final ReentrantLock replicateLock = new ReentrantLock();
+
+    @PostConstruct
+    public void recover() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Long max = transactionRepository.findMaxLedgerSeq();
+        replicatedSeq = max != null ? max : 0;
+
+        long before = replicatedRows.get();
+        List<LedgerRecord> batch = new ArrayList<>(batchSize);
+        localLedger.readRecovered(replicatedSeq, record -> {
+            batch.add(record);
+            if (batch.size() == batchSize) {
+                insert(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            insert(batch);
+        }
+        localLedger.release(replicatedSeq);
+        logger.info("Ledger replay inserted {} rows; replicated through sequence {}",
+                replicatedRows.get() - before, replicatedSeq);
+    }
+
+    @Scheduled(fixedDelayString = "${app.ledger.replicate-interval-ms:200}")
+    public void scheduledReplicate() {
+        try {
+            replicate();
+        } catch (RuntimeException e) {
+            logger.error("Ledger replication failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Copies everything committed so far into the database. Returns the rows inserted.
+     */
+    public int replicate() {
+        replicateLock.lock();
+        try {
+            int total = 0;
+            while (true) {
+                if (unsent.isEmpty() && localLedger.drainCommitted(unsent, batchSize) == 0) {
+                    break;
+                }
+                unsent.removeIf(record -> record.seq() <= replicatedSeq);
+                if (!unsent.isEmpty()) {
+                    insert(unsent);
+                    total += unsent.size();
+                }
+                unsent = new ArrayList<>();
+            }
+            if (total > 0) {
+                localLedger.release(replicatedSeq);
+            }
+            return total;
+        } finally {
+            replicateLock.unlock();
+        }
+    }
+
+    /**
+     * Waits for appends still in group commit, then copies everything into the database.
+     */
+    public int replicateAppended() {
+        localLedger.awaitCommitted();
+        return replicate();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(localLedger.getStats());
+        stats.put("replicatedSeq", replicatedSeq);
+        stats.put("replicatedRows", replicatedRows.get());
+        stats.put("replicationBatches", batches.get());
+        return stats;
+    }
+
+    private void insert(List<LedgerRecord> records) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> batchInsert(records));
+        } catch (DataIntegrityViolationException e) {
+            // One rejected record fails the whole batch; insert one at a time to find it. Any
+            // other failure propagates and the remaining records are retried on the next pass
+            for (LedgerRecord record : records) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> batchInsert(List.of(record)));
+                    replicatedRows.incrementAndGet();
+                } catch (DataIntegrityViolationException rejected) {
+                    localLedger.quarantine(record, rejected.getMostSpecificCause().getMessage());
+                }
+                replicatedSeq = record.seq();
+            }
+            batches.incrementAndGet();
+            return;
+        }
+        replicatedSeq = records.get(records.size() - 1).seq();
+        replicatedRows.addAndGet(records.size());
+        batches.incrementAndGet();
+    }
+
+    private void batchInsert(List<LedgerRecord> records) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, records.size(), (ps, record) -> {
+            ps.setLong(1, record.itemId());
+            if (record.userId() != null) {
+                ps.setLong(2, record.userId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setInt(3, record.quantity());
+            ps.setString(4, record.type().name());
+            ps.setString(5, record.notes());
+            ps.setTimestamp(6, Timestamp.valueOf(record.createdAt()));
+            ps.setBoolean(7, record.stockApplied());
+            ps.setLong(8, record.seq());
+        });
+    }
+}
@@ -0,0 +1,156 @@
+package com.inventory.smart.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * A fixed-size, memory-mapped ledger file. Layout: an 8-byte header (magic, version),
+ * then records framed as [payload length][CRC32 of payload][payload]. A zero length
+ * marks the end of the written data.
+ */
+class LedgerSegment {
+    private static final int MAGIC = 0x494e564c; // "INVL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int FRAME_SIZE = 8;
+
+    private final Path path;
+    private final long firstSeq;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int position = HEADER_SIZE;
+    private long lastSeq;
+
+    private LedgerSegment(Path path, long firstSeq, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSeq = firstSeq;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lastSeq = firstSeq - 1;
+    }
+
+    static Path fileName(Path directory, long firstSeq) {
+        return directory.resolve(String.format("ledger-%020d.seg", firstSeq));
+    }
+
+    static long firstSeqOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("ledger-".length(), name.length() - ".seg".length()));
+    }
+
+    static LedgerSegment create(Path directory, long firstSeq, int size) throws IOException {
+        Path path = fileName(directory, firstSeq);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.force();
+        channel.force(true);
+        return new LedgerSegment(path, firstSeq, channel, buffer);
+    }
+
+    static LedgerSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a ledger segment: " + path);
+        }
+        return new LedgerSegment(path, firstSeqOf(path), channel, buffer);
+    }
+
+    /**
+     * Walks the records, stopping at the end marker or at the first record that is torn
+     * or fails its checksum. Everything after that point is cut off so new appends
+     * continue from the last good record. Returns false if the scan stopped on damage.
+     */
+    boolean scan(Consumer<LedgerRecord> consumer) {
+        int offset = HEADER_SIZE;
+        boolean clean = true;
+        CRC32 crc = new CRC32();
+        while (offset + FRAME_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || offset + FRAME_SIZE + length > buffer.capacity()) {
+                clean = false;
+                break;
+            }
+            ByteBuffer payload = buffer.slice(offset + FRAME_SIZE, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                clean = false;
+                break;
+            }
+            LedgerRecord record = LedgerRecord.decode(payload);
+            lastSeq = record.seq();
+            consumer.accept(record);
+            offset += FRAME_SIZE + length;
+        }
+        position = offset;
+        if (!clean && position + 4 <= buffer.capacity()) {
+            buffer.putInt(position, 0);
+        }
+        return clean;
+    }
+
+    /**
+     * Writes one record, or returns false if it does not fit in the remaining space.
+     */
+    boolean append(long seq, byte[] payload) {
+        int end = position + FRAME_SIZE + payload.length;
+        if (end + 4 > buffer.capacity()) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        buffer.put(position + FRAME_SIZE, payload);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(end, 0);
+        // The length goes in last so a reader never sees a frame without its payload
+        buffer.putInt(position, payload.length);
+        position = end;
+        lastSeq = seq;
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    long getFirstSeq() {
+        return firstSeq;
+    }
+
+    long getLastSeq() {
+        return lastSeq;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
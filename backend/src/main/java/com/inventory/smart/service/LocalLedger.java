@@ -0,0 +1,345 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.model.Transaction.TransactionType;
+import com.inventory.smart.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Durable local write-ahead ledger for stock transactions, enabled with
+ * app.ledger.mode=local. Appends go into memory-mapped segment files; a committer
+ * thread forces the dirty segments to disk once per group and then completes every
+ * append in that group, so many writers share one fsync. Committed records are handed
+ * to {@link LedgerReplicator}, which copies them into the transactions table.
+ *
+ * Stock checks stay in memory, so this mode requires app.stock.engine.mode=memory.
+ */
+@Service
+@ConditionalOnProperty(name = "app.ledger.mode", havingValue = "local")
+public class LocalLedger {
+    private static final Logger logger = LoggerFactory.getLogger(LocalLedger.class);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired(required = false)
+    private InMemoryStockEngine stockEngine;
+
+    @Value("${app.ledger.directory:./data/ledger}")
+    private String directory;
+
+    @Value("${app.ledger.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${app.ledger.group-commit-interval-ms:2}")
+    private long groupCommitIntervalMs;
+
+    private final Object lock = new Object();
+
+    // Oldest first; the last one takes appends. Guarded by lock, as are the fields below
+    private final List<LedgerSegment> segments = new ArrayList<>();
+
+    private final Set<LedgerSegment> dirty = new LinkedHashSet<>();
+
+    private List<PendingAppend> pending = new ArrayList<>();
+
+    // Groups commit in order, so once this completes every earlier append is committed too
+    private CompletableFuture<LedgerRecord> lastAppend;
+
+    private long nextSeq;
+
+    private boolean open;
+
+    private final BlockingQueue<LedgerRecord> committed = new LinkedBlockingQueue<>();
+
+    private final AtomicLong appendCount = new AtomicLong();
+
+    private final AtomicLong groupCommits = new AtomicLong();
+
+    private final AtomicLong quarantined = new AtomicLong();
+
+    private Path path;
+
+    private long recoveredUpTo;
+
+    private Thread committer;
+
+    private record PendingAppend(LedgerRecord record, CompletableFuture<LedgerRecord> future) {
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (stockEngine == null) {
+            throw new IllegalStateException("app.ledger.mode=local requires app.stock.engine.mode=memory");
+        }
+
+        path = Paths.get(directory);
+        Files.createDirectories(path);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(path)) {
+            files = listing.filter(file -> file.getFileName().toString().matches("ledger-\\d{20}\\.seg"))
+                    .sorted()
+                    .toList();
+        }
+
+        long lastSeq = 0;
+        for (Path file : files) {
+            LedgerSegment segment = LedgerSegment.open(file);
+            if (!segment.scan(record -> { })) {
+                logger.warn("Ledger segment {} ends in a damaged record; it was cut at the last good record", file);
+            }
+            segments.add(segment);
+            lastSeq = Math.max(lastSeq, segment.getLastSeq());
+        }
+        recoveredUpTo = lastSeq;
+
+        // Replicated segments may already be deleted, so the database also bounds the sequence
+        Long replicated = transactionRepository.findMaxLedgerSeq();
+        nextSeq = Math.max(lastSeq, replicated != null ? replicated : 0) + 1;
+
+        if (segments.isEmpty()) {
+            segments.add(LedgerSegment.create(path, nextSeq, segmentSize()));
+        }
+        open = true;
+        committer = new Thread(this::runCommitter, "ledger-committer");
+        committer.setDaemon(true);
+        committer.start();
+        logger.info("Local ledger opened in {} with {} segments; next sequence {}", path, segments.size(), nextSeq);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        synchronized (lock) {
+            open = false;
+            lock.notifyAll();
+        }
+        committer.join();
+        synchronized (lock) {
+            segments.forEach(LedgerSegment::close);
+        }
+    }
+
+    /**
+     * Appends a record and returns a future that completes once it is on disk.
+     */
+    public CompletableFuture<LedgerRecord> append(Long itemId, Long userId, int quantity, TransactionType type,
+                                                  String notes, boolean stockApplied) {
+        CompletableFuture<LedgerRecord> future = new CompletableFuture<>();
+        synchronized (lock) {
+            if (!open) {
+                throw new IllegalStateException("Ledger is closed");
+            }
+            LedgerRecord record = new LedgerRecord(nextSeq, itemId, userId, quantity, type, notes,
+                    LocalDateTime.now(), stockApplied);
+            byte[] payload = record.encode();
+            LedgerSegment segment = segments.get(segments.size() - 1);
+            if (!segment.append(record.seq(), payload)) {
+                segment = rollover();
+                if (!segment.append(record.seq(), payload)) {
+                    throw new IllegalArgumentException("Ledger record does not fit in a segment");
+                }
+            }
+            nextSeq++;
+            dirty.add(segment);
+            pending.add(new PendingAppend(record, future));
+            lastAppend = future;
+            lock.notifyAll();
+        }
+        appendCount.incrementAndGet();
+        return future;
+    }
+
+    /**
+     * Waits until every record appended so far is committed and handed to the replicator.
+     */
+    public void awaitCommitted() {
+        CompletableFuture<LedgerRecord> last;
+        synchronized (lock) {
+            last = lastAppend;
+        }
+        if (last != null) {
+            // A failed group closes the ledger; there is nothing more to wait for
+            last.exceptionally(e -> null).join();
+        }
+    }
+
+    /**
+     * Feeds every record recovered from disk with a sequence above afterSeq to the
+     * consumer, oldest first. Only meant for startup, before appends begin.
+     */
+    public void readRecovered(long afterSeq, Consumer<LedgerRecord> consumer) {
+        List<LedgerSegment> snapshot;
+        synchronized (lock) {
+            snapshot = new ArrayList<>(segments);
+        }
+        for (LedgerSegment segment : snapshot) {
+            if (segment.getLastSeq() > afterSeq) {
+                segment.scan(record -> {
+                    if (record.seq() > afterSeq && record.seq() <= recoveredUpTo) {
+                        consumer.accept(record);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Moves up to max committed records, in sequence order, into the target.
+     */
+    public int drainCommitted(Collection<LedgerRecord> target, int max) {
+        return committed.drainTo(target, max);
+    }
+
+    /**
+     * Deletes sealed segments whose records have all been replicated.
+     */
+    public void release(long replicatedSeq) {
+        synchronized (lock) {
+            Iterator<LedgerSegment> iterator = segments.iterator();
+            while (iterator.hasNext()) {
+                LedgerSegment segment = iterator.next();
+                if (segment == segments.get(segments.size() - 1) || segment.getLastSeq() > replicatedSeq
+                        || dirty.contains(segment)) {
+                    break;
+                }
+                segment.delete();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Sets aside a committed record the database will never accept, such as one for an item
+     * that no longer exists, so replication can move past it. The record is appended to
+     * quarantine.log next to the segments, since the segment holding it may be deleted.
+     */
+    public void quarantine(LedgerRecord record, String reason) {
+        String line = String.join("\t", String.valueOf(record.seq()), String.valueOf(record.itemId()),
+                String.valueOf(record.userId()), String.valueOf(record.quantity()), String.valueOf(record.type()),
+                String.valueOf(record.createdAt()), String.valueOf(record.stockApplied()),
+                String.valueOf(record.notes()), String.valueOf(reason)) + System.lineSeparator();
+        synchronized (quarantined) {
+            try {
+                Files.writeString(path.resolve("quarantine.log"), line, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        quarantined.incrementAndGet();
+        logger.error("Quarantined ledger record {} for item {}: {}", record.seq(), record.itemId(), reason);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (lock) {
+            stats.put("nextSeq", nextSeq);
+            stats.put("segments", segments.size());
+            stats.put("pendingCommit", pending.size());
+        }
+        stats.put("appends", appendCount.get());
+        stats.put("groupCommits", groupCommits.get());
+        stats.put("awaitingReplication", committed.size());
+        stats.put("quarantined", quarantined.get());
+        return stats;
+    }
+
+    private int segmentSize() {
+        return segmentSizeMb * 1024 * 1024;
+    }
+
+    private LedgerSegment rollover() {
+        try {
+            LedgerSegment segment = LedgerSegment.create(path, nextSeq, segmentSize());
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void runCommitter() {
+        while (true) {
+            synchronized (lock) {
+                while (pending.isEmpty() && open) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+            }
+
+            // Give concurrent writers a moment to join this group
+            if (groupCommitIntervalMs > 0) {
+                try {
+                    Thread.sleep(groupCommitIntervalMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            List<PendingAppend> group;
+            List<LedgerSegment> toForce;
+            synchronized (lock) {
+                group = pending;
+                pending = new ArrayList<>();
+                toForce = new ArrayList<>(dirty);
+                dirty.clear();
+            }
+
+            try {
+                toForce.forEach(LedgerSegment::force);
+            } catch (RuntimeException e) {
+                // Durability can no longer be promised, so stop taking writes
+                logger.error("Ledger fsync failed, closing ledger: {}", e.getMessage());
+                synchronized (lock) {
+                    open = false;
+                    pending.forEach(append -> append.future().completeExceptionally(e));
+                    pending.clear();
+                }
+                group.forEach(append -> append.future().completeExceptionally(e));
+                return;
+            }
+
+            for (PendingAppend append : group) {
+                committed.add(append.record());
+                append.future().complete(append.record());
+            }
+            groupCommits.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.dto.BatchOrderResult;
+import com.inventory.smart.model.Item;
+import com.inventory.smart.model.Order;
+import com.inventory.smart.model.OrderItem;
+import com.inventory.smart.repository.ItemRepository;
+import com.inventory.smart.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ingests many orders at once. Order numbers and items are validated with one query
+ * each and everything valid is written in a single transaction. Stock is applied order
+ * by order, so an invalid order or one that finds too little stock is reported and
+ * skipped without failing the batch.
+ */
+@Service
+public class OrderBatchService {
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    public record BatchOutcome(List<BatchOrderResult> results, Set<Long> touchedItemIds) {
+    }
+
+    @Transactional
+    public BatchOutcome createOrders(List<Order> orders) {
+        Set<String> orderNumbers = orders.stream()
+                .map(Order::getOrderNumber)
+                .filter(number -> number != null)
+                .collect(Collectors.toSet());
+        Set<String> takenNumbers = orderNumbers.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(orderRepository.findExistingOrderNumbers(orderNumbers));
+
+        Set<Long> itemIds = new HashSet<>();
+        for (Order order : orders) {
+            if (order.getOrderItems() == null) {
+                order.setOrderItems(new ArrayList<>());
+            }
+            for (OrderItem orderItem : order.getOrderItems()) {
+                if (orderItem.getItem() != null && orderItem.getItem().getId() != null) {
+                    itemIds.add(orderItem.getItem().getId());
+                }
+            }
+        }
+        // Without the in-memory engine the stock UPDATEs lock these rows one order at a time;
+        // locking them all up front, in id order, keeps concurrent batches from deadlocking
+        List<Item> found;
+        if (itemIds.isEmpty()) {
+            found = List.of();
+        } else if (stockService.isWriteBehind()) {
+            found = itemRepository.findAllById(itemIds);
+        } else {
+            found = itemRepository.findAllByIdForUpdate(itemIds);
+        }
+        Map<Long, Item> items = found.stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<BatchOrderResult> results = new ArrayList<>();
+        List<Order> accepted = new ArrayList<>();
+        Set<Long> touchedItemIds = new HashSet<>();
+        for (Order order : orders) {
+            String error = validate(order, takenNumbers, items);
+            if (error != null) {
+                results.add(BatchOrderResult.failed(order.getOrderNumber(), error));
+                continue;
+            }
+
+            // Checked against the stock service rather than the loaded items, whose levels
+            // are stale when the in-memory engine holds the live ones
+            Map<Long, Integer> deltas = stockDeltas(order);
+            Long shortItemId = stockService.applyAll(deltas, "Order " + order.getOrderNumber());
+            if (shortItemId != null) {
+                results.add(BatchOrderResult.failed(order.getOrderNumber(),
+                        "Error: Not enough stock for item: " + items.get(shortItemId).getName()));
+                continue;
+            }
+
+            for (OrderItem orderItem : order.getOrderItems()) {
+                orderItem.setOrder(order);
+                orderItem.setItem(items.get(orderItem.getItem().getId()));
+            }
+            touchedItemIds.addAll(deltas.keySet());
+            takenNumbers.add(order.getOrderNumber());
+            accepted.add(order);
+            results.add(new BatchOrderResult(order.getOrderNumber(), true, null, null));
+        }
+
+        List<Order> saved = orderRepository.saveAll(accepted);
+        Map<String, Long> savedIds = saved.stream()
+                .collect(Collectors.toMap(Order::getOrderNumber, Order::getId));
+        for (BatchOrderResult result : results) {
+            if (result.isSuccess()) {
+                result.setOrderId(savedIds.get(result.getOrderNumber()));
+            }
+        }
+
+        return new BatchOutcome(results, touchedItemIds);
+    }
+
+    private String validate(Order order, Set<String> takenNumbers, Map<Long, Item> items) {
+        if (order.getOrderNumber() == null) {
+            return "Error: Order number is required!";
+        }
+        if (takenNumbers.contains(order.getOrderNumber())) {
+            return "Error: Order number already exists!";
+        }
+        if (order.getOrderType() == null) {
+            return "Error: Order type is required!";
+        }
+        if (order.getTotalAmount() == null) {
+            return "Error: Total amount is required!";
+        }
+
+        for (OrderItem orderItem : order.getOrderItems()) {
+            if (orderItem.getItem() == null || orderItem.getItem().getId() == null) {
+                return "Error: Order line without an item!";
+            }
+            if (orderItem.getQuantity() == null || orderItem.getQuantity() < 1) {
+                return "Error: Invalid quantity for item id: " + orderItem.getItem().getId();
+            }
+            if (orderItem.getUnitPrice() == null || orderItem.getTotalPrice() == null) {
+                return "Error: Missing price for item id: " + orderItem.getItem().getId();
+            }
+            if (!items.containsKey(orderItem.getItem().getId())) {
+                return "Item not found with id: '" + orderItem.getItem().getId() + "'";
+            }
+        }
+        return null;
+    }
+
+    private Map<Long, Integer> stockDeltas(Order order) {
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            int delta = 0;
+            if (order.getOrderType() == Order.OrderType.PURCHASE) {
+                delta = orderItem.getQuantity();
+            } else if (order.getOrderType() == Order.OrderType.SALE) {
+                delta = -orderItem.getQuantity();
+            }
+            deltas.merge(orderItem.getItem().getId(), delta, Integer::sum);
+        }
+        return deltas;
+    }
+}
@@ -0,0 +1,58 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.model.Order;
+import com.inventory.smart.model.OrderItem;
+import com.inventory.smart.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class OrderService {
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    /**
+     * Saves the order and applies its stock changes atomically; if any line lacks stock
+     * the whole order is rolled back.
+     */
+    @Transactional
+    public Order createOrder(Order order) {
+        for (OrderItem orderItem : order.getOrderItems()) {
+            orderItem.setOrder(order);
+        }
+        applyStockChanges(order, 1, "Order " + order.getOrderNumber());
+        return orderRepository.save(order);
+    }
+
+    @Transactional
+    public Order cancelOrder(Order order) {
+        // Revert inventory changes unless the order was already cancelled
+        if (order.getStatus() != Order.OrderStatus.CANCELLED) {
+            applyStockChanges(order, -1, "Order " + order.getOrderNumber() + " cancelled");
+        }
+        order.setStatus(Order.OrderStatus.CANCELLED);
+        return orderRepository.save(order);
+    }
+
+    private void applyStockChanges(Order order, int direction, String reference) {
+        // Sum lines per item and apply in id order so concurrent orders lock rows in the same order
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            int delta = 0;
+            if (order.getOrderType() == Order.OrderType.PURCHASE) {
+                delta = orderItem.getQuantity();
+            } else if (order.getOrderType() == Order.OrderType.SALE) {
+                delta = -orderItem.getQuantity();
+            }
+            deltas.merge(orderItem.getItem().getId(), delta * direction, Integer::sum);
+        }
+        deltas.forEach((itemId, delta) -> stockService.apply(itemId, delta, reference));
+    }
+}
@@ -0,0 +1,143 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.model.Item;
+import com.inventory.smart.model.StockAlert.AlertType;
+import com.inventory.smart.repository.ItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps LOW_STOCK and OUT_OF_STOCK alerts in step with stock levels. Stock writes only
+ * mark the item dirty; a background pass re-evaluates dirty items in batches, raising
+ * the alert that applies and resolving the ones that no longer do. A periodic full
+ * pass over all items (see {@link AlertGenerationJob}) reconciles anything the
+ * incremental path missed.
+ */
+@Service
+public class StockAlertEvaluator {
+    private static final Logger logger = LoggerFactory.getLogger(StockAlertEvaluator.class);
+
+    private static final Set<AlertType> STOCK_ALERT_TYPES = EnumSet.of(AlertType.LOW_STOCK, AlertType.OUT_OF_STOCK);
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private AlertSync alertSync;
+
+    @Value("${app.alerts.stock.batch-size:500}")
+    private int batchSize;
+
+    private final Set<Long> dirtyItemIds = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong raised = new AtomicLong();
+
+    private final AtomicLong resolved = new AtomicLong();
+
+    private final ReentrantLock evaluateLock = new ReentrantLock();
+
+    public void itemChanged(Long itemId) {
+        if (itemId != null) {
+            dirtyItemIds.add(itemId);
+        }
+    }
+
+    public void itemsChanged(Collection<Long> itemIds) {
+        itemIds.forEach(this::itemChanged);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingItems", dirtyItemIds.size());
+        stats.put("raised", raised.get());
+        stats.put("resolved", resolved.get());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${app.alerts.stock.evaluation-interval-ms:250}")
+    public void evaluatePending() {
+        while (!dirtyItemIds.isEmpty()) {
+            List<Long> batch = new ArrayList<>(Math.min(batchSize, dirtyItemIds.size()));
+            Iterator<Long> iterator = dirtyItemIds.iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            try {
+                evaluate(batch);
+            } catch (RuntimeException e) {
+                // Put the batch back so the next pass retries it
+                dirtyItemIds.addAll(batch);
+                logger.error("Stock alert evaluation failed: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Re-evaluates every item, walking ids in keyset order.
+     */
+    public AlertSync.Outcome reconcile() {
+        AlertSync.Outcome total = AlertSync.Outcome.NONE;
+        Long afterId = 0L;
+        List<Long> ids;
+        while (!(ids = itemRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize))).isEmpty()) {
+            total = total.plus(evaluate(ids));
+            afterId = ids.get(ids.size() - 1);
+        }
+        return total;
+    }
+
+    /**
+     * Brings the stock alerts of the given items up to date.
+     */
+    public AlertSync.Outcome evaluate(Collection<Long> itemIds) {
+        evaluateLock.lock();
+        try {
+            AlertSync.Outcome outcome = alertSync.sync(itemIds, STOCK_ALERT_TYPES, this::requiredAlert, this::message);
+            raised.addAndGet(outcome.raised());
+            resolved.addAndGet(outcome.resolved());
+            return outcome;
+        } finally {
+            evaluateLock.unlock();
+        }
+    }
+
+    private AlertType requiredAlert(Item item) {
+        if (!item.isActive() || item.getCurrentStock() == null) {
+            return null;
+        }
+        if (item.getCurrentStock() <= 0) {
+            return AlertType.OUT_OF_STOCK;
+        }
+        if (item.getMinimumStock() != null && item.getCurrentStock() <= item.getMinimumStock()) {
+            return AlertType.LOW_STOCK;
+        }
+        return null;
+    }
+
+    private String message(Item item) {
+        if (item.getCurrentStock() <= 0) {
+            return "Out of stock alert: " + item.getName() + " has no units left";
+        }
+        return "Low stock alert: " + item.getName() + " has only " +
+                item.getCurrentStock() + " units left (minimum: " + item.getMinimumStock() + ")";
+    }
+}
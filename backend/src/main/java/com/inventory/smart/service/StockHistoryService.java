@@ -0,0 +1,180 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.dto.CursorPage;
+import com.inventory.smart.dto.StockAsOfDTO;
+import com.inventory.smart.exception.ResourceNotFoundException;
+import com.inventory.smart.model.Item;
+import com.inventory.smart.model.StockSnapshot;
+import com.inventory.smart.model.Transaction.TransactionType;
+import com.inventory.smart.repository.ItemRepository;
+import com.inventory.smart.repository.StockSnapshotRepository;
+import com.inventory.smart.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Answers "what was the stock at time T" from periodic snapshots plus the ledger rows
+ * past the nearest earlier snapshot's ledger mark, so a lookup costs the activity since
+ * that snapshot rather than the item's whole history.
+ */
+@Service
+public class StockHistoryService {
+    private static final Logger logger = LoggerFactory.getLogger(StockHistoryService.class);
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // The snapshot statement relies on REPEATABLE READ locking its source rows
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    // Baseline for items that have never been snapshotted, e.g. on first start
+    @EventListener(ApplicationReadyEvent.class)
+    public void baseline() {
+        scheduledSnapshot();
+    }
+
+    @Scheduled(cron = "${app.stock.snapshots.cron:0 0 0 * * *}")
+    public void scheduledSnapshot() {
+        try {
+            int count = takeSnapshot();
+            logger.info("Recorded stock snapshots for {} items", count);
+        } catch (RuntimeException e) {
+            logger.error("Stock snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Snapshots every item whose stock may have changed since the previous snapshot.
+     * Returns the number of items recorded.
+     */
+    public int takeSnapshot() {
+        snapshotLock.lock();
+        try {
+            // Written-behind changes must reach items.current_stock before it is copied, and none may
+            // be recorded meanwhile, or the ledger mark would cover rows the stock does not reflect
+            Integer count = stockService.whileStockChangesPaused(() -> transactionTemplate.execute(
+                    status -> snapshotRepository.snapshotChangedItems(LocalDateTime.now())));
+            return count != null ? count : 0;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Must be called after an item is created so its history starts at its initial stock.
+     */
+    public void itemCreated(Item item) {
+        snapshotRepository.save(new StockSnapshot(null, item.getId(),
+                item.getCreatedAt() != null ? item.getCreatedAt() : LocalDateTime.now(), item.getCurrentStock(), 0L));
+    }
+
+    @Transactional(readOnly = true)
+    public StockAsOfDTO stockAt(Long itemId, LocalDateTime at) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new ResourceNotFoundException("Item", "id", itemId));
+        StockSnapshot snapshot = snapshotRepository.findFirstByItemIdAndTakenAtLessThanEqualOrderByTakenAtDesc(itemId, at)
+                .orElseThrow(() -> new ResourceNotFoundException("Stock snapshot", "at or before", at));
+
+        int stock = snapshot.getStock();
+        List<Object[]> changes = transactionRepository.findStockChangesForItemAfter(itemId, snapshot.getLedgerId(), at);
+        for (Object[] change : changes) {
+            stock = replay(stock, (TransactionType) change[0], (Integer) change[1]);
+        }
+        return new StockAsOfDTO(itemId, item.getSku(), item.getName(), at, stock, snapshot.getTakenAt(), changes.size());
+    }
+
+    /**
+     * Stock of every item that existed at the given time, one keyset page at a time.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<StockAsOfDTO> stockAt(LocalDateTime at, Long afterId, int size) {
+        List<Object[]> keys = itemRepository.findSearchKeysAfter(afterId != null ? afterId : 0L, PageRequest.of(0, size + 1));
+        boolean hasMore = keys.size() > size;
+        if (hasMore) {
+            keys = keys.subList(0, size);
+        }
+        if (keys.isEmpty()) {
+            return new CursorPage<>(List.of(), 0, false, null);
+        }
+
+        List<Long> itemIds = keys.stream().map(key -> (Long) key[0]).collect(Collectors.toList());
+        Map<Long, StockSnapshot> snapshots = new HashMap<>();
+        for (StockSnapshot snapshot : snapshotRepository.findLatestForItems(itemIds, at)) {
+            snapshots.put(snapshot.getItemId(), snapshot);
+        }
+
+        Map<Long, int[]> replayed = new HashMap<>();
+        if (!snapshots.isEmpty()) {
+            snapshots.forEach((itemId, snapshot) -> replayed.put(itemId, new int[]{snapshot.getStock(), 0}));
+            List<Long> snapshotIds = snapshots.values().stream().map(StockSnapshot::getId).collect(Collectors.toList());
+            for (Object[] change : transactionRepository.findStockChangesAfterSnapshots(snapshotIds, at)) {
+                int[] state = replayed.get((Long) change[0]);
+                state[0] = replay(state[0], (TransactionType) change[1], (Integer) change[2]);
+                state[1]++;
+            }
+        }
+
+        // Items without a snapshot at that time did not exist yet and are left out
+        List<StockAsOfDTO> content = new ArrayList<>();
+        for (Object[] key : keys) {
+            Long itemId = (Long) key[0];
+            StockSnapshot snapshot = snapshots.get(itemId);
+            if (snapshot != null) {
+                int[] state = replayed.get(itemId);
+                content.add(new StockAsOfDTO(itemId, (String) key[2], (String) key[1], at, state[0],
+                        snapshot.getTakenAt(), state[1]));
+            }
+        }
+
+        String nextCursor = hasMore ? CursorPage.encodeCursor(itemIds.get(itemIds.size() - 1).toString()) : null;
+        return new CursorPage<>(content, content.size(), hasMore, nextCursor);
+    }
+
+    private int replay(int stock, TransactionType type, int quantity) {
+        if (type == TransactionType.STOCK_IN) {
+            return stock + quantity;
+        } else if (type == TransactionType.STOCK_OUT) {
+            return stock - quantity;
+        }
+        return quantity;
+    }
+}
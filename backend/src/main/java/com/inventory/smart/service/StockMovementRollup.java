@@ -0,0 +1,147 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.model.StockMovementDaily;
+import com.inventory.smart.model.Transaction.TransactionType;
+import com.inventory.smart.repository.StockMovementDailyRepository;
+import com.inventory.smart.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Folds new transactions rows into the stock_movement_daily rollup. Rows are picked up
+ * by their rolled_up marker rather than an id watermark, so rows that commit out of id
+ * order, or arrive late from the local ledger, are still counted exactly once.
+ */
+@Service
+public class StockMovementRollup {
+    private static final Logger logger = LoggerFactory.getLogger(StockMovementRollup.class);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private StockMovementDailyRepository movementRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.movements.rollup.batch-size:5000}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicLong rolledUpRows = new AtomicLong();
+
+    private final ReentrantLock catchUpLock = new ReentrantLock();
+
+    private volatile LocalDateTime lastRunAt;
+
+    private record Key(Long itemId, LocalDate date, TransactionType type) {
+    }
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.movements.rollup.interval-ms:5000}")
+    public void scheduledCatchUp() {
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            logger.error("Stock movement rollup failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rolls up every pending transactions row. Returns the number of rows folded in.
+     */
+    public int catchUp() {
+        catchUpLock.lock();
+        try {
+            int total = 0;
+            int batch;
+            while ((batch = rollUpBatch()) > 0) {
+                total += batch;
+            }
+            lastRunAt = LocalDateTime.now();
+            return total;
+        } finally {
+            catchUpLock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rolledUpRows", rolledUpRows.get());
+        stats.put("lastRunAt", lastRunAt);
+        return stats;
+    }
+
+    private int rollUpBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<Object[]> rows = transactionRepository.findNotRolledUp(PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            Map<Key, long[]> totals = new HashMap<>();
+            List<Long> ids = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                ids.add((Long) row[0]);
+                Key key = new Key((Long) row[1], ((LocalDateTime) row[2]).toLocalDate(), (TransactionType) row[3]);
+                long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+                total[0] += (Integer) row[4];
+                total[1]++;
+            }
+
+            Set<Long> itemIds = new HashSet<>();
+            Set<LocalDate> dates = new HashSet<>();
+            totals.keySet().forEach(key -> {
+                itemIds.add(key.itemId());
+                dates.add(key.date());
+            });
+            Map<Key, StockMovementDaily> existing = new HashMap<>();
+            for (StockMovementDaily movement : movementRepository.findByItemIdInAndMovementDateIn(itemIds, dates)) {
+                existing.put(new Key(movement.getItemId(), movement.getMovementDate(), movement.getType()), movement);
+            }
+
+            List<StockMovementDaily> changed = new ArrayList<>(totals.size());
+            totals.forEach((key, total) -> {
+                StockMovementDaily movement = existing.get(key);
+                if (movement == null) {
+                    movement = new StockMovementDaily(null, key.itemId(), key.date(), key.type(), 0L, 0L);
+                }
+                movement.setQuantity(movement.getQuantity() + total[0]);
+                movement.setTransactionCount(movement.getTransactionCount() + total[1]);
+                changed.add(movement);
+            });
+            movementRepository.saveAll(changed);
+            transactionRepository.markRolledUp(ids);
+            return rows.size();
+        });
+        int rolledUp = count != null ? count : 0;
+        rolledUpRows.addAndGet(rolledUp);
+        return rolledUp;
+    }
+}
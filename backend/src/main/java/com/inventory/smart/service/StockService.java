@@ -0,0 +1,328 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.exception.InsufficientStockException;
+import com.inventory.smart.exception.ResourceNotFoundException;
+import com.inventory.smart.model.Item;
+import com.inventory.smart.model.Transaction;
+import com.inventory.smart.model.Transaction.TransactionType;
+import com.inventory.smart.repository.ItemRepository;
+import com.inventory.smart.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The only way stock levels change. Every mutation is a single conditional UPDATE, so
+ * concurrent writers never lose each other's changes and never drive stock negative.
+ *
+ * When the {@link InMemoryStockEngine} is enabled the check happens against its
+ * in-memory counters instead, the change is recorded in the ledger, and the items
+ * table catches up on the engine's next flush.
+ */
+@Service
+public class StockService {
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired(required = false)
+    private InMemoryStockEngine stockEngine;
+
+    @Autowired(required = false)
+    private LedgerReplicator ledgerReplicator;
+
+    @Autowired(required = false)
+    private LocalLedger localLedger;
+
+    public enum Result {
+        APPLIED,
+        INSUFFICIENT_STOCK,
+        NOT_FOUND
+    }
+
+    /**
+     * True when items.current_stock is written behind by the in-memory engine, in which
+     * case every change must reach the ledger with stock_applied = false.
+     */
+    public boolean isWriteBehind() {
+        return stockEngine != null;
+    }
+
+    /**
+     * True when stock transactions are made durable in the {@link LocalLedger} rather than
+     * in a database transaction.
+     */
+    public boolean isLedgerBacked() {
+        return localLedger != null;
+    }
+
+    public Map<String, Object> getEngineStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", stockEngine != null ? "memory" : "database");
+        if (stockEngine != null) {
+            stats.putAll(stockEngine.getStats());
+        }
+        if (ledgerReplicator != null) {
+            stats.put("ledger", ledgerReplicator.getStats());
+        }
+        return stats;
+    }
+
+    @Transactional
+    public Result increase(Long itemId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity must not be negative");
+        }
+        if (stockEngine != null) {
+            stockEngine.openChange(itemId);
+            Result result = stockEngine.add(itemId, quantity);
+            afterCompletion(itemId, result == Result.APPLIED ? () -> stockEngine.release(itemId, -quantity) : null);
+            return result;
+        }
+        return itemRepository.incrementStock(itemId, quantity) == 1 ? Result.APPLIED : Result.NOT_FOUND;
+    }
+
+    @Transactional
+    public Result decrease(Long itemId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity must not be negative");
+        }
+        if (stockEngine != null) {
+            stockEngine.openChange(itemId);
+            Result result = stockEngine.reserve(itemId, quantity);
+            afterCompletion(itemId, result == Result.APPLIED ? () -> stockEngine.release(itemId, quantity) : null);
+            return result;
+        }
+        if (itemRepository.decrementStockIfAvailable(itemId, quantity) == 1) {
+            return Result.APPLIED;
+        }
+        return itemRepository.existsById(itemId) ? Result.INSUFFICIENT_STOCK : Result.NOT_FOUND;
+    }
+
+    @Transactional
+    public Result set(Long itemId, int quantity) {
+        if (stockEngine != null) {
+            stockEngine.openChange(itemId);
+            Integer previous = stockEngine.set(itemId, quantity);
+            afterCompletion(itemId, previous != null ? () -> stockEngine.release(itemId, previous - quantity) : null);
+            return previous != null ? Result.APPLIED : Result.NOT_FOUND;
+        }
+        return itemRepository.setStock(itemId, quantity) == 1 ? Result.APPLIED : Result.NOT_FOUND;
+    }
+
+    /**
+     * A change applied to the engine outside any database transaction, for callers that
+     * make it durable in the {@link LocalLedger} instead. Must be passed to
+     * {@link #completeEngineChange} once that has succeeded or failed.
+     */
+    public record EngineChange(Long itemId, Result result, Runnable undo) {
+    }
+
+    public EngineChange applyToEngine(Long itemId, TransactionType type, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity must not be negative");
+        }
+        stockEngine.openChange(itemId);
+        if (type == TransactionType.STOCK_IN) {
+            return new EngineChange(itemId, stockEngine.add(itemId, quantity),
+                    () -> stockEngine.release(itemId, -quantity));
+        }
+        if (type == TransactionType.STOCK_OUT) {
+            return new EngineChange(itemId, stockEngine.reserve(itemId, quantity),
+                    () -> stockEngine.release(itemId, quantity));
+        }
+        Integer previous = stockEngine.set(itemId, quantity);
+        return previous != null
+                ? new EngineChange(itemId, Result.APPLIED, () -> stockEngine.release(itemId, previous - quantity))
+                : new EngineChange(itemId, Result.NOT_FOUND, null);
+    }
+
+    public void completeEngineChange(EngineChange change, boolean durable) {
+        try {
+            if (!durable && change.result() == Result.APPLIED) {
+                change.undo().run();
+            }
+        } finally {
+            stockEngine.closeChange(change.itemId());
+        }
+    }
+
+    /**
+     * Applies a signed change and throws if it cannot be applied, rolling back the
+     * surrounding transaction. The change is recorded in the transactions ledger with
+     * the reference as its note, so stock history can be replayed from the ledger.
+     */
+    @Transactional
+    public void apply(Long itemId, int delta, String reference) {
+        Result result = delta >= 0 ? increase(itemId, delta) : decrease(itemId, -delta);
+        if (result == Result.NOT_FOUND) {
+            throw new ResourceNotFoundException("Item", "id", itemId);
+        }
+        if (result == Result.INSUFFICIENT_STOCK) {
+            String name = itemRepository.findById(itemId).map(Item::getName).orElse(String.valueOf(itemId));
+            throw new InsufficientStockException(itemId, "Error: Not enough stock for item: " + name);
+        }
+
+        if (delta != 0) {
+            Transaction entry = new Transaction(itemRepository.getReferenceById(itemId), null, Math.abs(delta),
+                    delta > 0 ? TransactionType.STOCK_IN : TransactionType.STOCK_OUT, reference);
+            entry.setCreatedAt(LocalDateTime.now());
+            entry.setStockApplied(stockEngine == null);
+            transactionRepository.save(entry);
+        }
+    }
+
+    /**
+     * Applies several signed changes as one unit and records each in the ledger. If an item
+     * lacks the stock, the changes already made are reversed and that item's id is returned;
+     * unlike {@link #apply}, the surrounding transaction stays usable, so a caller can skip
+     * one unit of work and carry on. Returns null once everything is applied.
+     */
+    @Transactional
+    public Long applyAll(Map<Long, Integer> deltas, String reference) {
+        // Decreases first, since only they can fail; reversing them is an increase, which cannot
+        List<Map.Entry<Long, Integer>> ordered = new ArrayList<>(deltas.entrySet());
+        ordered.sort(Map.Entry.comparingByValue());
+        List<Map.Entry<Long, Integer>> applied = new ArrayList<>();
+        for (Map.Entry<Long, Integer> change : ordered) {
+            Long itemId = change.getKey();
+            int delta = change.getValue();
+            Result result = delta >= 0 ? increase(itemId, delta) : decrease(itemId, -delta);
+            if (result == Result.NOT_FOUND) {
+                throw new ResourceNotFoundException("Item", "id", itemId);
+            }
+            if (result == Result.INSUFFICIENT_STOCK) {
+                applied.forEach(done -> increase(done.getKey(), -done.getValue()));
+                return itemId;
+            }
+            applied.add(change);
+        }
+
+        for (Map.Entry<Long, Integer> change : applied) {
+            if (change.getValue() != 0) {
+                Transaction entry = new Transaction(itemRepository.getReferenceById(change.getKey()), null,
+                        Math.abs(change.getValue()),
+                        change.getValue() > 0 ? TransactionType.STOCK_IN : TransactionType.STOCK_OUT, reference);
+                entry.setCreatedAt(LocalDateTime.now());
+                entry.setStockApplied(stockEngine == null);
+                transactionRepository.save(entry);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets a stock level entered by editing the item directly and records it in the
+     * ledger as an adjustment, so the ledger stays a complete history of stock movements.
+     */
+    @Transactional
+    public void setFromEdit(Long itemId, int quantity) {
+        if (set(itemId, quantity) == Result.NOT_FOUND) {
+            throw new ResourceNotFoundException("Item", "id", itemId);
+        }
+        Transaction entry = new Transaction(itemRepository.getReferenceById(itemId), null, quantity,
+                TransactionType.ADJUSTMENT, "Item edited");
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setStockApplied(stockEngine == null);
+        transactionRepository.save(entry);
+    }
+
+    /**
+     * The {@link #setFromEdit} counterpart when the local ledger is enabled: the adjustment
+     * is appended there like any other stock transaction, so it is ordered with the sales
+     * around it. Must be called outside a database transaction, since it waits for the
+     * group commit.
+     */
+    public void appendEdit(Long itemId, int quantity) {
+        EngineChange change = applyToEngine(itemId, TransactionType.ADJUSTMENT, quantity);
+        boolean durable = false;
+        try {
+            if (change.result() == Result.NOT_FOUND) {
+                throw new ResourceNotFoundException("Item", "id", itemId);
+            }
+            localLedger.append(itemId, null, quantity, TransactionType.ADJUSTMENT, "Item edited", false).join();
+            durable = true;
+        } finally {
+            completeEngineChange(change, durable);
+        }
+    }
+
+    /**
+     * Waits until every written-behind change has reached items.current_stock.
+     */
+    public void flushWriteBehind() {
+        if (ledgerReplicator != null) {
+            ledgerReplicator.replicateAppended();
+        }
+        if (stockEngine != null) {
+            int flushed;
+            do {
+                flushed = stockEngine.flush();
+            } while (flushed > 0);
+        }
+    }
+
+    /**
+     * Runs the action with every written-behind change applied to items.current_stock and
+     * no new stock change starting until it returns. Without the in-memory engine every
+     * change is applied in its own transaction, so the action just runs.
+     */
+    public <T> T whileStockChangesPaused(Supplier<T> action) {
+        if (stockEngine == null) {
+            return action.get();
+        }
+        stockEngine.pauseChanges();
+        try {
+            flushWriteBehind();
+            return action.get();
+        } finally {
+            stockEngine.resumeChanges();
+        }
+    }
+
+    /**
+     * Must be called after an item is deleted outside this service.
+     */
+    public void itemChanged(Long itemId) {
+        if (ledgerReplicator != null) {
+            // The reloaded level is read from the database, so pending ledger records must be there
+            // first, including those still waiting for their group commit
+            ledgerReplicator.replicateAppended();
+        }
+        if (stockEngine != null) {
+            stockEngine.evict(itemId);
+        }
+    }
+
+    // Undo an in-memory change if the database transaction that recorded it fails, and only
+    // then let the engine evict the item's counter
+    private void afterCompletion(Long itemId, Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stockEngine.closeChange(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_ROLLED_BACK && compensation != null) {
+                        compensation.run();
+                    }
+                } finally {
+                    stockEngine.closeChange(itemId);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.inventory.smart.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.smart.model.User;
+import com.inventory.smart.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Remembers each user's current token version and active flag so that request
+ * authentication only reads the users table when that state is unknown or stale.
+ */
+@Service
+public class TokenVersionService {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.jwt.version-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.jwt.version-cache.max-size:100000}")
+    private long maxSize;
+
+    private Cache<Long, UserTokenState> states;
+
+    private record UserTokenState(int version, boolean active) {
+    }
+
+    @PostConstruct
+    public void init() {
+        states = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Returns true if a token issued with the given version is still acceptable for the user.
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        UserTokenState state = states.get(userId, this::load);
+        return state != null && state.active() && state.version() == tokenVersion;
+    }
+
+    /**
+     * Invalidates every token issued to the user so far and saves the user.
+     */
+    public User revokeTokens(User user) {
+        int current = user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+        user.setTokenVersion(current + 1);
+        User saved = userRepository.save(user);
+        states.invalidate(user.getId());
+        return saved;
+    }
+
+    public void evict(Long userId) {
+        states.invalidate(userId);
+    }
+
+    private UserTokenState load(Long userId) {
+        return userRepository.findTokenStateById(userId)
+                .map(state -> new UserTokenState(
+                        state.getTokenVersion() != null ? state.getTokenVersion() : 0, state.isActive()))
+                .orElse(null);
+    }
+}
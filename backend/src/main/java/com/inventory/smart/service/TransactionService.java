@@ -0,0 +1,151 @@
+package com.inventory.smart.service;
+
+import com.inventory.smart.dto.TransactionDTO;
+import com.inventory.smart.exception.InsufficientStockException;
+import com.inventory.smart.model.Item;
+import com.inventory.smart.model.Transaction;
+import com.inventory.smart.model.Transaction.TransactionType;
+import com.inventory.smart.model.User;
+import com.inventory.smart.repository.ItemRepository;
+import com.inventory.smart.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+@Service
+public class TransactionService {
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ItemLookupCache itemLookupCache;
+
+    @Autowired(required = false)
+    private LocalLedger localLedger;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Applies the stock change with a single conditional update and records it in the
+     * ledger in the same transaction. With the local ledger enabled no database
+     * transaction is involved: the change is applied to the in-memory engine and the
+     * record is acknowledged once it is on local disk, reaching the database
+     * asynchronously, so the returned transaction has no id yet. Its user carries only the
+     * id and username, so it can be read once the session is closed.
+     */
+    public Transaction recordTransaction(Long userId, String username, TransactionDTO transactionDTO) {
+        if (transactionDTO.getType() == null) {
+            throw new IllegalArgumentException("Type is required");
+        }
+        if (transactionDTO.getQuantity() == null) {
+            throw new IllegalArgumentException("Quantity is required");
+        }
+        int quantity = transactionDTO.getQuantity();
+        // Only an adjustment may set the level to zero; a zero or negative movement is a client error
+        if (transactionDTO.getType() != TransactionType.ADJUSTMENT && quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        if (quantity < 0) {
+            throw new InsufficientStockException(transactionDTO.getItemId(), "Stock cannot be negative");
+        }
+
+        if (localLedger != null) {
+            return appendToLedger(user(userId, username), transactionDTO);
+        }
+        return transactionTemplate.execute(status -> recordInDatabase(user(userId, username), transactionDTO));
+    }
+
+    // The row only needs the user's id; a detached instance avoids a lazy proxy that the
+    // caller could not initialize outside the session
+    private User user(Long userId, String username) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername(username);
+        return user;
+    }
+
+    private Transaction recordInDatabase(User user, TransactionDTO transactionDTO) {
+        Long itemId = transactionDTO.getItemId();
+        int quantity = transactionDTO.getQuantity();
+
+        StockService.Result result = StockService.Result.APPLIED;
+        if (transactionDTO.getType() == TransactionType.STOCK_IN) {
+            result = stockService.increase(itemId, quantity);
+        } else if (transactionDTO.getType() == TransactionType.STOCK_OUT) {
+            result = stockService.decrease(itemId, quantity);
+        } else if (transactionDTO.getType() == TransactionType.ADJUSTMENT) {
+            result = stockService.set(itemId, quantity); // Direct set for adjustments
+        }
+
+        if (result == StockService.Result.INSUFFICIENT_STOCK) {
+            throw new InsufficientStockException(itemId, "Stock cannot be negative");
+        }
+
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new RuntimeException("Item not found"));
+
+        Transaction transaction = new Transaction();
+        transaction.setItem(item);
+        transaction.setUser(user);
+        transaction.setQuantity(quantity);
+        transaction.setType(transactionDTO.getType());
+        transaction.setNotes(transactionDTO.getNotes());
+        transaction.setCreatedAt(LocalDateTime.now());
+        transaction.setStockApplied(!stockService.isWriteBehind());
+
+        return transactionRepository.save(transaction);
+    }
+
+    // Runs outside any database transaction so no connection is held while waiting for the
+    // group commit; the engine change is undone unless the record became durable
+    private Transaction appendToLedger(User user, TransactionDTO transactionDTO) {
+        if (transactionDTO.getNotes() != null && transactionDTO.getNotes().length() > 500) {
+            throw new IllegalArgumentException("Notes must be at most 500 characters");
+        }
+        Item item = itemLookupCache.findById(transactionDTO.getItemId())
+                .orElseThrow(() -> new RuntimeException("Item not found"));
+
+        StockService.EngineChange change = stockService.applyToEngine(item.getId(), transactionDTO.getType(),
+                transactionDTO.getQuantity());
+        boolean durable = false;
+        try {
+            if (change.result() == StockService.Result.INSUFFICIENT_STOCK) {
+                throw new InsufficientStockException(item.getId(), "Stock cannot be negative");
+            }
+            if (change.result() == StockService.Result.NOT_FOUND) {
+                throw new RuntimeException("Item not found");
+            }
+
+            // Blocks until the group commit that contains this record has been forced to disk
+            LedgerRecord record = localLedger.append(item.getId(), user.getId(), transactionDTO.getQuantity(),
+                    transactionDTO.getType(), transactionDTO.getNotes(), false).join();
+            durable = true;
+
+            Transaction transaction = new Transaction(item, user, record.quantity(), record.type(), record.notes());
+            transaction.setCreatedAt(record.createdAt());
+            transaction.setStockApplied(false);
+            transaction.setLedgerSeq(record.seq());
+            return transaction;
+        } finally {
+            stockService.completeEngineChange(change, durable);
+        }
+    }
+}
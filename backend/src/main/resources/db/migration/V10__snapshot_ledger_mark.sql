@@ -0,0 +1,12 @@
+-- Each snapshot records the highest transaction id reflected in its stock, so history
+-- replays by id rather than by comparing application and database timestamps.
+ALTER TABLE stock_snapshots ADD COLUMN ledger_id bigint NOT NULL DEFAULT 0;
+
+-- Best effort for snapshots taken before the mark existed: what the timestamps said
+UPDATE stock_snapshots s SET ledger_id = COALESCE(
+    (SELECT MAX(t.id) FROM transactions t WHERE t.item_id = s.item_id AND t.created_at <= s.taken_at), 0);
+
+CREATE INDEX idx_stock_snapshots_item_ledger ON stock_snapshots (item_id, ledger_id);
+
+-- Replay of one item's transactions past a mark; InnoDB appends the primary key to the entries
+CREATE INDEX idx_transactions_item ON transactions (item_id);
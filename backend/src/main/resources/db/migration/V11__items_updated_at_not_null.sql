@@ -0,0 +1,4 @@
+-- Keyset paging on updated_at skips rows where it is NULL, so fill those from created_at
+-- and keep the column filled from now on
+UPDATE items SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP(6)) WHERE updated_at IS NULL;
+ALTER TABLE items MODIFY updated_at datetime(6) NOT NULL;
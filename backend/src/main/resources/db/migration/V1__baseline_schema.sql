@@ -0,0 +1,174 @@
+-- Baseline schema, exactly what spring.jpa.hibernate.ddl-auto=update produced for the
+-- original entity mappings. Databases created that way are baselined at this version and
+-- skip this script (spring.flyway.baseline-on-migrate); constraint names are kept as
+-- Hibernate generated them so later migrations can refer to them on both. Everything
+-- added since then is in V2 onwards.
+
+create table categories (
+    active bit not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    created_by varchar(255),
+    description varchar(255),
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table items (
+    active bit not null,
+    cost_price decimal(38,2) not null,
+    current_stock integer not null,
+    expiry_date date,
+    minimum_stock integer not null,
+    selling_price decimal(38,2) not null,
+    category_id bigint,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    created_by varchar(255),
+    description TEXT,
+    image_url varchar(255),
+    location varchar(255),
+    name varchar(255),
+    sku varchar(255) not null,
+    supplier varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table order_items (
+    quantity integer not null,
+    total_price decimal(38,2) not null,
+    unit_price decimal(38,2) not null,
+    id bigint not null auto_increment,
+    item_id bigint not null,
+    order_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table orders (
+    total_amount decimal(38,2) not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    created_by varchar(255),
+    customer varchar(255),
+    notes varchar(255),
+    order_number varchar(255) not null,
+    supplier varchar(255),
+    order_type enum ('PURCHASE','SALE'),
+    status enum ('PENDING','PROCESSING','COMPLETED','CANCELLED'),
+    primary key (id)
+) engine=InnoDB;
+
+create table roles (
+    id integer not null auto_increment,
+    name enum ('ROLE_ADMIN','ROLE_EMPLOYEE','ROLE_MANAGER'),
+    primary key (id)
+) engine=InnoDB;
+
+create table stock_alerts (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    item_id bigint not null,
+    resolved_at datetime(6),
+    message varchar(255),
+    resolved_by varchar(255),
+    alert_type enum ('LOW_STOCK','OUT_OF_STOCK','EXPIRY_APPROACHING','EXPIRED'),
+    status enum ('ACTIVE','RESOLVED','IGNORED'),
+    primary key (id)
+) engine=InnoDB;
+
+create table suppliers (
+    active bit not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    address varchar(255),
+    contact_name varchar(255),
+    email varchar(255),
+    name varchar(255) not null,
+    notes TEXT,
+    phone varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table transactions (
+    quantity integer not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    item_id bigint not null,
+    user_id bigint,
+    notes varchar(500),
+    type enum ('STOCK_IN','STOCK_OUT','ADJUSTMENT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table user_roles (
+    role_id integer not null,
+    user_id bigint not null,
+    primary key (role_id, user_id)
+) engine=InnoDB;
+
+create table users (
+    active bit not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    phone varchar(15),
+    username varchar(20),
+    email varchar(50),
+    full_name varchar(50),
+    password varchar(120),
+    created_by varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+alter table items
+   add constraint UK6ekhs0v78950udvne2fj7y2ee unique (sku);
+
+alter table users
+   add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table users
+   add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table items
+   add constraint FKjcdcde7htb3tyjgouo4g9xbmr
+   foreign key (category_id)
+   references categories (id);
+
+alter table order_items
+   add constraint FK88tn2oqcxl1034banqif9r70x
+   foreign key (item_id)
+   references items (id);
+
+alter table order_items
+   add constraint FKbioxgbv59vetrxe0ejfubep1w
+   foreign key (order_id)
+   references orders (id);
+
+alter table stock_alerts
+   add constraint FKgfcegp2pajkbqjk6n91u2o28e
+   foreign key (item_id)
+   references items (id);
+
+alter table transactions
+   add constraint FKq9uhpbfe5lk2mc79uwsk2ng83
+   foreign key (item_id)
+   references items (id);
+
+alter table transactions
+   add constraint FKqwv7rmvc8va8rep7piikrojds
+   foreign key (user_id)
+   references users (id);
+
+alter table user_roles
+   add constraint FKh8ciramu9cc9q3qcqiv4ue8a6
+   foreign key (role_id)
+   references roles (id);
+
+alter table user_roles
+   add constraint FKhfh9dx7w3ubf1co1vdev94g3f
+   foreign key (user_id)
+   references users (id);
@@ -0,0 +1,4 @@
+-- Version embedded in each JWT; bumping it revokes every token issued to the user so far.
+-- Tokens issued before this column existed carry version 0.
+ALTER TABLE users ADD COLUMN token_version integer;
+UPDATE users SET token_version = 0;
@@ -0,0 +1,5 @@
+-- Whether a transaction's quantity has been written to items.current_stock. Write-behind
+-- replay picks up rows where it is false. Transactions recorded before this column existed
+-- were applied in the same database transaction that inserted them.
+ALTER TABLE transactions ADD COLUMN stock_applied bit;
+UPDATE transactions SET stock_applied = 1;
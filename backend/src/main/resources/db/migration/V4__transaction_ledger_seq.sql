@@ -0,0 +1,5 @@
+-- Sequence number of the local ledger record a transaction was replicated from. After a
+-- restart, replication resumes past the highest one already here. Null for rows written
+-- directly to the database.
+ALTER TABLE transactions ADD COLUMN ledger_seq bigint;
+ALTER TABLE transactions ADD CONSTRAINT UK_lwig2cau8pu2i1p7at4olncv9 UNIQUE (ledger_seq);
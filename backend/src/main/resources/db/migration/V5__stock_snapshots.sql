@@ -0,0 +1,15 @@
+-- Periodic per-item stock levels; a point-in-time query starts from the latest snapshot
+-- and replays the transactions after it.
+CREATE TABLE stock_snapshots (
+    stock integer not null,
+    id bigint not null auto_increment,
+    item_id bigint not null,
+    taken_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+CREATE INDEX idx_stock_snapshots_item_taken ON stock_snapshots (item_id, taken_at);
+CREATE INDEX idx_stock_snapshots_taken ON stock_snapshots (taken_at);
+
+-- Replay of one item's transactions up to a point in time
+CREATE INDEX idx_transactions_item_created ON transactions (item_id, created_at);
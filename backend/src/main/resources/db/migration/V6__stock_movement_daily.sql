@@ -0,0 +1,19 @@
+-- Daily per-item, per-type movement totals maintained from the transaction ledger
+CREATE TABLE stock_movement_daily (
+    movement_date date not null,
+    id bigint not null auto_increment,
+    item_id bigint not null,
+    quantity bigint not null,
+    transaction_count bigint not null,
+    type enum ('STOCK_IN','STOCK_OUT','ADJUSTMENT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+CREATE INDEX idx_stock_movement_daily_date ON stock_movement_daily (movement_date);
+ALTER TABLE stock_movement_daily
+    ADD CONSTRAINT uk_stock_movement_daily UNIQUE (item_id, movement_date, type);
+
+-- Null until the rollup has counted the row. Existing transactions are left null so the
+-- first rollup run builds the history from them.
+ALTER TABLE transactions ADD COLUMN rolled_up bit;
+CREATE INDEX idx_transactions_rolled_up ON transactions (rolled_up);
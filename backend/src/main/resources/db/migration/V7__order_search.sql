@@ -0,0 +1,11 @@
+-- Lower-cased, trimmed customer and supplier names for case-insensitive prefix search
+ALTER TABLE orders ADD COLUMN customer_key varchar(255);
+ALTER TABLE orders ADD COLUMN supplier_key varchar(255);
+UPDATE orders SET customer_key = NULLIF(LOWER(TRIM(customer)), ''), supplier_key = NULLIF(LOWER(TRIM(supplier)), '');
+
+-- Keyset order search on (created_at, id), optionally filtered by status and type
+CREATE INDEX idx_orders_status_type_created ON orders (status, order_type, created_at);
+CREATE INDEX idx_orders_type_created ON orders (order_type, created_at);
+CREATE INDEX idx_orders_created ON orders (created_at);
+CREATE INDEX idx_orders_customer_key ON orders (customer_key);
+CREATE INDEX idx_orders_supplier_key ON orders (supplier_key);
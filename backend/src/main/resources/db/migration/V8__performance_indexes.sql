@@ -0,0 +1,22 @@
+-- Secondary indexes for the repository queries that otherwise scan.
+
+-- Alert listings filter by status and type; alert sync looks up open alerts per item
+CREATE INDEX idx_stock_alerts_status_type ON stock_alerts (status, alert_type);
+CREATE INDEX idx_stock_alerts_item_status_type ON stock_alerts (item_id, status, alert_type);
+
+-- Category listings and counts; replaces the implicit foreign key index
+CREATE INDEX idx_items_category ON items (category_id);
+
+-- Expiring-items lookups
+CREATE INDEX idx_items_expiry ON items (expiry_date);
+
+-- /items/page?sort=updatedAt and incremental stock snapshots
+CREATE INDEX idx_items_updated ON items (updated_at);
+
+-- The low-stock index uses MySQL-only syntax and is in db/vendor/mysql
+
+-- Order number lookups on every order create
+CREATE INDEX idx_orders_order_number ON orders (order_number);
+
+-- Write-behind replay of transactions not yet applied to item stock
+CREATE INDEX idx_transactions_stock_applied ON transactions (stock_applied);
@@ -0,0 +1,6 @@
+-- An alert stays part of its (item, type) episode until alert sync sees the condition clear.
+-- Alerts a user resolved or ignored keep suppressing new ones until then.
+ALTER TABLE stock_alerts ADD COLUMN cleared_at datetime(6);
+
+-- Alerts closed before this column existed are treated as belonging to finished episodes
+UPDATE stock_alerts SET cleared_at = COALESCE(resolved_at, created_at) WHERE status <> 'ACTIVE';
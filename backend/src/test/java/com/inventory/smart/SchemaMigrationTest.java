@@ -0,0 +1,88 @@
+package com.inventory.smart;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database created by the original application (ddl-auto=update, no Flyway
+ * history) the way production does: Flyway baselines it at V1 and applies the later
+ * migrations, then Hibernate validates the result against the entities. The context only
+ * starts if validation passes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        // Validation compares column types; the migrations declare the MySQL ones
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"
+})
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+    private static final String URL =
+            "jdbc:h2:mem:pre-series;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void preSeriesDatabase(DynamicPropertyRegistry registry) {
+        // Runs before the context, and so before Flyway, starts
+        SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(), URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql"))
+                .execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (active, username, email, full_name, password) " +
+                "VALUES (1, 'legacy', 'legacy@example.com', 'Legacy User', 'x')");
+        jdbc.update("INSERT INTO items (active, cost_price, current_stock, minimum_stock, selling_price, sku, name) " +
+                "VALUES (1, 1.00, 10, 2, 2.00, 'LEGACY-1', 'Legacy item')");
+        jdbc.update("INSERT INTO transactions (quantity, type, created_at, item_id) " +
+                "VALUES (10, 'STOCK_IN', CURRENT_TIMESTAMP, (SELECT id FROM items WHERE sku = 'LEGACY-1'))");
+        jdbc.update("INSERT INTO orders (order_number, order_type, status, customer, supplier, total_amount) " +
+                "VALUES ('LEGACY-ORD-1', 'SALE', 'PENDING', '  Acme Ltd ', NULL, 10.00)");
+
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void baselinesPreSeriesDatabaseAndAppliesLaterMigrations() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertThat(applied[0].getType()).isEqualTo(MigrationType.BASELINE);
+        assertThat(applied[0].getVersion().getVersion()).isEqualTo("1");
+        assertThat(applied[1].getVersion().getVersion()).isEqualTo("2");
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    @Test
+    void backfillsColumnsForExistingRows() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT token_version FROM users WHERE username = 'legacy'", Integer.class)).isZero();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT t.stock_applied FROM transactions t JOIN items i ON i.id = t.item_id " +
+                "WHERE i.sku = 'LEGACY-1'", Boolean.class)).isTrue();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM items WHERE updated_at IS NULL", Integer.class)).isZero();
+
+        Map<String, Object> order = jdbcTemplate.queryForMap(
+                "SELECT customer_key, supplier_key FROM orders WHERE order_number = 'LEGACY-ORD-1'");
+        assertThat(order.get("customer_key")).isEqualTo("acme ltd");
+        assertThat(order.get("supplier_key")).isNull();
+    }
+}
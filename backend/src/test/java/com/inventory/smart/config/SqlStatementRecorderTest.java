@@ -0,0 +1,67 @@
+package com.inventory.smart.config;
+
+import com.inventory.smart.exception.QueryBudgetExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlStatementRecorderTest {
+    private final SqlStatementRecorder recorder = new SqlStatementRecorder();
+
+    @AfterEach
+    void clear() {
+        while (recorder.stop() != null) {
+            // Unwind anything a failed test left open on this thread
+        }
+    }
+
+    @Test
+    void countsOnlyWhileRecording() {
+        recorder.inspect("select 1");
+        recorder.start("test", 0);
+        recorder.inspect("select 1");
+        recorder.inspect("select 1");
+        recorder.inspect("select 2");
+
+        SqlStatementRecorder.Recording recording = recorder.stop();
+        assertThat(recording.getTotal()).isEqualTo(3);
+        assertThat(recording.getStatements()).containsEntry("select 1", 2).containsEntry("select 2", 1);
+        assertThat(recorder.stop()).isNull();
+    }
+
+    @Test
+    void nestedRecordingsBothCount() {
+        recorder.start("outer", 0);
+        recorder.inspect("select 1");
+        recorder.start("inner", 0);
+        recorder.inspect("select 2");
+
+        assertThat(recorder.stop().getTotal()).isEqualTo(1);
+        recorder.inspect("select 3");
+        assertThat(recorder.stop().getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void warnModeOnlyFlagsTheOverrun() {
+        recorder.start("GET /things", 1);
+        recorder.inspect("select 1");
+        recorder.inspect("select 2");
+
+        SqlStatementRecorder.Recording recording = recorder.stop();
+        assertThat(recording.isOverBudget()).isTrue();
+        assertThat(recording.getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void strictModeFailsOnTheFirstStatementOverBudget() {
+        recorder.setStrict(true);
+        recorder.start("GET /things", 1);
+        recorder.inspect("select 1");
+
+        assertThatThrownBy(() -> recorder.inspect("select 2"))
+                .isInstanceOf(QueryBudgetExceededException.class)
+                .hasMessageContaining("GET /things");
+    }
+}
@@ -0,0 +1,245 @@
+package com.inventory.smart.controller;
+
+import com.inventory.smart.config.SqlStatementRecorder;
+import com.inventory.smart.model.Category;
+import com.inventory.smart.model.Item;
+import com.inventory.smart.model.Order;
+import com.inventory.smart.model.OrderItem;
+import com.inventory.smart.model.Transaction;
+import com.inventory.smart.model.Transaction.TransactionType;
+import com.inventory.smart.repository.CategoryRepository;
+import com.inventory.smart.repository.ItemRepository;
+import com.inventory.smart.repository.OrderRepository;
+import com.inventory.smart.repository.TransactionRepository;
+import com.inventory.smart.repository.UserRepository;
+import com.inventory.smart.security.UserDetailsImpl;
+import com.inventory.smart.service.ItemSearchIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the list endpoints against more rows than one {@code @BatchSize} batch, and the
+ * order and transaction writes, and checks the statement count stays within each
+ * endpoint's {@code @QueryBudget}. The test profile runs the budgets in strict mode, so an
+ * endpoint over its budget also fails the request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithMockUser(roles = "ADMIN")
+class QueryBudgetTest {
+    private static final int CATEGORIES = 3;
+    private static final int ITEMS = 250;
+    private static final int ORDERS = 240;
+    private static final int TRANSACTIONS = 300;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementRecorder recorder;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    private Long categoryId;
+
+    private List<Long> itemIds;
+
+    @BeforeAll
+    void seed() {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES; i++) {
+            Category category = new Category();
+            category.setName("Budget category " + i);
+            categories.add(category);
+        }
+        categories = categoryRepository.saveAll(categories);
+        categoryId = categories.get(0).getId();
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = new Item();
+            item.setName("Widget " + i);
+            item.setSku("BUDGET-" + i);
+            item.setCategory(categories.get(i % CATEGORIES));
+            // Half the items low on stock, the other half expiring soon
+            item.setCurrentStock(i % 2 == 0 ? 3 : 100);
+            item.setMinimumStock(5);
+            item.setExpiryDate(i % 2 == 0 ? null : LocalDate.now().plusDays(10));
+            item.setCostPrice(BigDecimal.ONE);
+            item.setSellingPrice(BigDecimal.TEN);
+            items.add(item);
+        }
+        items = itemRepository.saveAll(items);
+        itemIds = items.stream().map(Item::getId).toList();
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setOrderNumber("BUDGET-ORD-" + i);
+            order.setOrderType(i % 2 == 0 ? Order.OrderType.SALE : Order.OrderType.PURCHASE);
+            order.setStatus(Order.OrderStatus.PENDING);
+            order.setCustomer("Acme Customer " + i);
+            order.setSupplier("Acme Supplier " + i);
+            order.setTotalAmount(BigDecimal.valueOf(20));
+            for (int line = 0; line < 2; line++) {
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrder(order);
+                orderItem.setItem(items.get((i * 2 + line) % ITEMS));
+                orderItem.setQuantity(1);
+                orderItem.setUnitPrice(BigDecimal.TEN);
+                orderItem.setTotalPrice(BigDecimal.TEN);
+                order.getOrderItems().add(orderItem);
+            }
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Transaction transaction = new Transaction(items.get(i % 10), null, 1, TransactionType.STOCK_OUT, null);
+            transaction.setStockApplied(true);
+            transactions.add(transaction);
+        }
+        transactionRepository.saveAll(transactions);
+
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void itemListsStayWithinBudget() throws Exception {
+        assertWithinBudget(2, "/items", ITEMS);
+        assertWithinBudget(2, "/items/page?size=200", "$.content.length()", 200);
+        assertWithinBudget(2, "/items/category/" + categoryId, (ITEMS + CATEGORIES - 1) / CATEGORIES);
+        assertWithinBudget(2, "/items/low-stock", ITEMS / 2);
+        assertWithinBudget(2, "/items/expiring?days=30", ITEMS / 2);
+        assertWithinBudget(1, "/items/search?name=widget&size=200", 200);
+    }
+
+    @Test
+    void orderListsStayWithinBudget() throws Exception {
+        assertWithinBudget(1, "/orders", ORDERS);
+        assertWithinBudget(1, "/orders/type/SALE", ORDERS / 2);
+        assertWithinBudget(1, "/orders/status/PENDING", ORDERS);
+        assertWithinBudget(1, "/orders/customer?customer=acme", ORDERS);
+        assertWithinBudget(1, "/orders/supplier?supplier=SUPPLIER", ORDERS);
+        assertWithinBudget(1, "/orders/date-range?startDate=2000-01-01T00:00:00&endDate=2999-01-01T00:00:00",
+                ORDERS);
+        assertWithinBudget(2, "/orders/search?size=200", "$.content.length()", 200);
+        assertWithinBudget(2, "/orders/number/BUDGET-ORD-7", "$.orderItems.length()", 2);
+    }
+
+    @Test
+    void otherListsStayWithinBudget() throws Exception {
+        assertWithinBudget(2, "/categories", (int) categoryRepository.count());
+        assertWithinBudget(1, "/api/transactions", TRANSACTIONS);
+    }
+
+    @Test
+    void writesStayWithinBudget() throws Exception {
+        UserDetailsImpl admin = new UserDetailsImpl(userRepository.findByUsername("admin").orElseThrow().getId(),
+                "admin", null, null, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        assertWithinBudget(3, post("/api/transactions").with(user(admin))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemId\": " + stockedItem(0) + ", \"quantity\": 1, \"type\": \"STOCK_OUT\"}"),
+                status().isCreated());
+
+        // Three lines: 2 + 3 per line
+        assertWithinBudget(11, post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson("BUDGET-WRITE-1", 0, 3)),
+                status().isOk());
+
+        // Four orders of two lines: 2 + 3 per order and per line
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i < 4; i++) {
+            batch.append(i > 0 ? "," : "").append(orderJson("BUDGET-BATCH-" + i, 10 + i * 2, 2));
+        }
+        assertWithinBudget(38, post("/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch.append("]").toString()),
+                status().isOk(), jsonPath("$.accepted").value(4));
+    }
+
+    // Odd-numbered items are the ones seeded with plenty of stock
+    private Long stockedItem(int n) {
+        return itemIds.get(n * 2 + 1);
+    }
+
+    private String orderJson(String orderNumber, int firstItem, int lines) {
+        StringBuilder items = new StringBuilder();
+        for (int line = 0; line < lines; line++) {
+            items.append(line > 0 ? "," : "")
+                    .append("{\"item\": {\"id\": ").append(stockedItem(firstItem + line))
+                    .append("}, \"quantity\": 1, \"unitPrice\": 10, \"totalPrice\": 10}");
+        }
+        return "{\"orderNumber\": \"" + orderNumber + "\", \"orderType\": \"SALE\", " +
+                "\"status\": \"PENDING\", \"totalAmount\": " + lines * 10 + ", \"orderItems\": [" + items + "]}";
+    }
+
+    private void assertWithinBudget(int budget, String url, int expectedSize) throws Exception {
+        assertWithinBudget(budget, url, "$.length()", expectedSize);
+    }
+
+    private void assertWithinBudget(int budget, String url, String sizePath, int expectedSize) throws Exception {
+        assertWithinBudget(budget, get(url), status().isOk(), jsonPath(sizePath).value(expectedSize));
+    }
+
+    private void assertWithinBudget(int budget, MockHttpServletRequestBuilder request, ResultMatcher... expectations)
+            throws Exception {
+        MockHttpServletRequest built = request.buildRequest(new MockServletContext());
+        String description = built.getMethod() + " " + built.getRequestURI();
+        recorder.start("test " + description, 0);
+        try {
+            mockMvc.perform(request).andExpectAll(expectations);
+        } finally {
+            SqlStatementRecorder.Recording recording = recorder.stop();
+            assertThat(recording.getTotal())
+                    .as("statements issued by %s: %s", description, recording.getStatements().keySet())
+                    .isLessThanOrEqualTo(budget);
+        }
+    }
+}
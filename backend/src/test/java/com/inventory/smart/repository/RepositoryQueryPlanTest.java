@@ -0,0 +1,312 @@
+package com.inventory.smart.repository;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every {@code @Query} in this package against MySQL with the schema built by the Flyway
+ * migrations, EXPLAINs the SQL each one sent and fails when a table that has indexes is read
+ * with a full scan. Queries that read a whole table by design are listed in
+ * {@link #EXPECTED_FULL_SCANS} with the table they may scan.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class RepositoryQueryPlanTest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.36")
+            .withUrlParam("queryInterceptors", CapturingInterceptor.class.getName());
+
+    private static final Map<String, Set<String>> EXPECTED_FULL_SCANS = Map.of(
+            // Unpaged list of every order
+            "OrderRepository.findAllWithItems", Set.of("orders"),
+            // Substring matches; /orders/search is the indexed prefix search
+            "OrderRepository.findByCustomerContainingIgnoreCase", Set.of("orders"),
+            "OrderRepository.findBySupplierContainingIgnoreCase", Set.of("orders"),
+            // One-off backfill at startup
+            "OrderRepository.backfillSearchKeys", Set.of("orders"),
+            // Checks every item for changes since its last snapshot
+            "StockSnapshotRepository.snapshotChangedItems", Set.of("items"),
+            // Unpaged list of the whole ledger
+            "TransactionRepository.findAllAsDTOs", Set.of("transactions"));
+
+    // Filter values that match few of the seeded rows, so a range or ref plan is the right one
+    private static final Long SAMPLE_ID = 7L;
+    private static final Long SAMPLE_AFTER_ID = 19950L;
+    private static final LocalDateTime SAMPLE_TIME = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final LocalDate SAMPLE_DATE = SAMPLE_TIME.toLocalDate();
+    private static final String SAMPLE_STRING = "zz%";
+
+    private static final Pattern TABLE_ALIAS =
+            Pattern.compile("\\b(?:from|join|update|into)\\s+(\\w+)(?:\\s+(\\w+))?", Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Set<String> indexedTables;
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    private void seed() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.execute((Connection connection) -> {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("query-plan-seed.sql"));
+            return null;
+        });
+        indexedTables = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT table_name FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND index_name <> 'PRIMARY'", String.class));
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        seed();
+        Repositories repositories = new Repositories(applicationContext);
+        List<String> failures = new ArrayList<>();
+        int checked = 0;
+
+        for (Class<?> domainType : repositories) {
+            Class<?> repositoryInterface = repositories.getRequiredRepositoryInformation(domainType)
+                    .getRepositoryInterface();
+            if (!repositoryInterface.getPackageName().equals(getClass().getPackageName())) {
+                continue;
+            }
+            Object repository = applicationContext.getBean(repositoryInterface);
+            for (Method method : repositoryInterface.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(Query.class)) {
+                    continue;
+                }
+                String name = repositoryInterface.getSimpleName() + "." + method.getName();
+                List<String> statements = capture(repository, method);
+                if (statements.isEmpty()) {
+                    failures.add(name + " sent no SQL");
+                }
+                for (String sql : statements) {
+                    failures.addAll(fullScans(name, sql));
+                }
+                checked++;
+            }
+        }
+
+        assertThat(checked).isGreaterThan(0);
+        assertThat(failures).as("full table scans").isEmpty();
+    }
+
+    /**
+     * Calls the repository method with sample arguments in a transaction that is rolled back,
+     * and returns the SQL it sent with the bound values inlined.
+     */
+    private List<String> capture(Object repository, Method method) {
+        Object[] args = Arrays.stream(method.getParameters())
+                .map(parameter -> sampleValue(parameter.getParameterizedType(), parameterName(parameter)))
+                .toArray();
+        List<String> captured = new ArrayList<>();
+        CapturingInterceptor.CAPTURED.set(captured);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    Object result = method.invoke(repository, args);
+                    if (result instanceof Stream<?> stream) {
+                        try (stream) {
+                            stream.forEach(row -> { });
+                        }
+                    }
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Could not run " + method, e);
+                }
+                status.setRollbackOnly();
+            });
+        } finally {
+            CapturingInterceptor.CAPTURED.remove();
+        }
+        return captured.stream()
+                .filter(sql -> sql.stripLeading().matches("(?is)(select|insert|update|delete|with)\\b.*"))
+                .toList();
+    }
+
+    private List<String> fullScans(String queryName, String sql) {
+        Map<String, String> tablesByAlias = new HashMap<>();
+        Matcher matcher = TABLE_ALIAS.matcher(sql);
+        while (matcher.find()) {
+            tablesByAlias.put(matcher.group(1).toLowerCase(Locale.ROOT), matcher.group(1).toLowerCase(Locale.ROOT));
+            if (matcher.group(2) != null) {
+                tablesByAlias.put(matcher.group(2).toLowerCase(Locale.ROOT), matcher.group(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        Set<String> allowed = EXPECTED_FULL_SCANS.getOrDefault(queryName, Set.of());
+
+        return jdbcTemplate.execute((Connection connection) -> {
+            List<String> scans = new ArrayList<>();
+            try (Statement statement = connection.createStatement()) {
+                // Caps the estimated cost of ref access, so on this small data set a usable index is
+                // preferred over a scan; a missing or unusable index still shows up as type ALL
+                statement.execute("SET SESSION max_seeks_for_key = 100");
+                try (ResultSet plan = statement.executeQuery("EXPLAIN " + sql)) {
+                    while (plan.next()) {
+                        String alias = plan.getString("table");
+                        String table = alias == null ? null : tablesByAlias.getOrDefault(alias.toLowerCase(Locale.ROOT), alias);
+                        if ("ALL".equals(plan.getString("type")) && indexedTables.contains(table)
+                                && !allowed.contains(table)) {
+                            scans.add(queryName + " scans " + table + ": " + sql);
+                        }
+                    }
+                }
+                statement.execute("SET SESSION max_seeks_for_key = DEFAULT");
+            }
+            return scans;
+        });
+    }
+
+    private static String parameterName(java.lang.reflect.Parameter parameter) {
+        Param param = parameter.getAnnotation(Param.class);
+        return param != null ? param.value() : parameter.getName();
+    }
+
+    private static Object sampleValue(Type type, String name) {
+        if (type instanceof ParameterizedType parameterized
+                && Collection.class.isAssignableFrom((Class<?>) parameterized.getRawType())) {
+            Type elementType = parameterized.getActualTypeArguments()[0];
+            if (elementType instanceof Class<?> element && element.isEnum()) {
+                return List.of(element.getEnumConstants());
+            }
+            if (elementType == String.class) {
+                return List.of("SEED-ORD-1", "SEED-ORD-2");
+            }
+            return List.of(sampleValue(elementType, name), SAMPLE_ID + 1, SAMPLE_ID + 2);
+        }
+        if (!(type instanceof Class<?> cls)) {
+            throw new IllegalArgumentException("No sample value for " + type);
+        }
+        if (cls == Long.class) {
+            return name.startsWith("after") ? SAMPLE_AFTER_ID : SAMPLE_ID;
+        }
+        if (cls == int.class || cls == Integer.class) {
+            return 1;
+        }
+        if (cls == boolean.class) {
+            return false;
+        }
+        if (cls == Boolean.class) {
+            return Boolean.TRUE;
+        }
+        if (cls == String.class) {
+            return SAMPLE_STRING;
+        }
+        if (cls == LocalDateTime.class) {
+            return SAMPLE_TIME;
+        }
+        if (cls == LocalDate.class) {
+            return SAMPLE_DATE;
+        }
+        if (cls.isEnum()) {
+            return cls.getEnumConstants()[0];
+        }
+        if (cls == Pageable.class) {
+            return PageRequest.of(0, 50);
+        }
+        throw new IllegalArgumentException("No sample value for " + cls.getName() + " " + name);
+    }
+
+    /**
+     * Records the SQL text the driver sends on the current thread while a capture is open.
+     * Client-side prepared statements are sent with their values inlined, so what is recorded
+     * can be EXPLAINed as-is.
+     */
+    public static class CapturingInterceptor implements QueryInterceptor {
+        static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+        @Override
+        public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+            return this;
+        }
+
+        @Override
+        public <T extends Resultset> T preProcess(Supplier<String> sql, com.mysql.cj.Query interceptedQuery) {
+            List<String> captured = CAPTURED.get();
+            if (captured != null) {
+                captured.add(sql.get());
+            }
+            return null;
+        }
+
+        @Override
+        public boolean executeTopLevelOnly() {
+            return true;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public <T extends Resultset> T postProcess(Supplier<String> sql, com.mysql.cj.Query interceptedQuery,
+                                                   T originalResultSet, ServerSession serverSession) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+-- Enough rows, with skewed filter columns, that the optimizer costs index access realistically.
+-- Numbers come from a temporary sequence table; every generated row is keyed off it.
+SET SESSION cte_max_recursion_depth = 100000;
+
+CREATE TEMPORARY TABLE seed_seq (n int PRIMARY KEY);
+INSERT INTO seed_seq (n)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 50000)
+SELECT n FROM seq;
+
+INSERT INTO categories (active, name, created_at, updated_at)
+SELECT 1, CONCAT('Seed category ', n), NOW(6), NOW(6) FROM seed_seq WHERE n <= 50;
+
+-- 2% low on stock, 5% inactive, 10% with an expiry date
+INSERT INTO items (active, cost_price, current_stock, expiry_date, minimum_stock, selling_price, category_id,
+                   created_at, updated_at, location, name, sku)
+SELECT n % 20 <> 0, 1.00, IF(n % 50 = 0, 5, 100),
+       IF(n % 10 = 0, DATE '2030-01-01' + INTERVAL (n % 365) DAY, NULL), 10, 2.00,
+       (SELECT MIN(id) FROM categories) + n % 50,
+       TIMESTAMP '2024-01-01 00:00:00' + INTERVAL n MINUTE, TIMESTAMP '2024-01-01 00:00:00' + INTERVAL n MINUTE,
+       CONCAT('Aisle ', n % 30), CONCAT('Seed item ', n), CONCAT('SEED-', n)
+FROM seed_seq WHERE n <= 20000;
+
+INSERT INTO orders (total_amount, created_at, updated_at, customer, customer_key, order_number, supplier,
+                    supplier_key, order_type, status)
+SELECT 20.00, TIMESTAMP '2024-01-01 00:00:00' + INTERVAL n MINUTE, TIMESTAMP '2024-01-01 00:00:00' + INTERVAL n MINUTE,
+       CONCAT('Customer ', n), CONCAT('customer ', n), CONCAT('SEED-ORD-', n),
+       CONCAT('Supplier ', n), CONCAT('supplier ', n),
+       IF(n % 2 = 0, 'SALE', 'PURCHASE'), ELT(1 + n % 4, 'PENDING', 'PROCESSING', 'COMPLETED', 'CANCELLED')
+FROM seed_seq WHERE n <= 20000;
+
+INSERT INTO order_items (quantity, total_price, unit_price, item_id, order_id)
+SELECT 1, 10.00, 10.00, i.id, o.id
+FROM orders o
+JOIN items i ON i.sku = CONCAT('SEED-', 1 + o.id % 20000)
+UNION ALL
+SELECT 1, 10.00, 10.00, i.id, o.id
+FROM orders o
+JOIN items i ON i.sku = CONCAT('SEED-', 1 + (o.id + 7) % 20000);
+
+-- 1% not yet applied to stock and not yet rolled up
+INSERT INTO transactions (quantity, rolled_up, stock_applied, created_at, item_id, type)
+SELECT 1, IF(s.n % 100 = 0, NULL, 1), s.n % 100 <> 0, TIMESTAMP '2024-01-01 00:00:00' + INTERVAL s.n MINUTE, i.id,
+       ELT(1 + s.n % 3, 'STOCK_IN', 'STOCK_OUT', 'ADJUSTMENT')
+FROM seed_seq s
+JOIN items i ON i.sku = CONCAT('SEED-', 1 + s.n % 20000);
+
+-- 20% of alerts still part of an open episode
+INSERT INTO stock_alerts (created_at, item_id, message, alert_type, status, cleared_at)
+SELECT TIMESTAMP '2024-01-01 00:00:00' + INTERVAL s.n MINUTE, i.id, 'Seed alert',
+       ELT(1 + s.n % 4, 'LOW_STOCK', 'OUT_OF_STOCK', 'EXPIRY_APPROACHING', 'EXPIRED'),
+       IF(s.n % 5 = 0, 'ACTIVE', 'RESOLVED'),
+       IF(s.n % 5 = 0, NULL, TIMESTAMP '2024-02-01 00:00:00')
+FROM seed_seq s
+JOIN items i ON i.sku = CONCAT('SEED-', s.n)
+WHERE s.n <= 10000;
+
+INSERT INTO stock_snapshots (stock, item_id, taken_at, ledger_id)
+SELECT 100, i.id, TIMESTAMP '2024-06-01 00:00:00' + INTERVAL (s.n % 10) DAY, s.n
+FROM seed_seq s
+JOIN items i ON i.sku = CONCAT('SEED-', 1 + s.n % 20000)
+WHERE s.n <= 40000;
+
+INSERT INTO stock_movement_daily (movement_date, item_id, quantity, transaction_count, type)
+SELECT DATE '2024-01-01' + INTERVAL (s.n DIV 2000) DAY, i.id, 5, 5, 'STOCK_OUT'
+FROM seed_seq s
+JOIN items i ON i.sku = CONCAT('SEED-', 1 + s.n % 2000)
+WHERE s.n <= 40000;
+
+DROP TEMPORARY TABLE seed_seq;
+
+ANALYZE TABLE categories, items, orders, order_items, transactions, stock_alerts, stock_snapshots,
+    stock_movement_daily;
@@ -5,6 +5,8 @@ import apiService from '../services/api.service';
 import AuthService from '../services/auth.service';
 import { Modal, Button, Form, InputGroup, Table, Badge } from 'react-bootstrap';
 
+const ITEMS_PAGE_SIZE = 200;
+
 const ItemList = () => {
   const [items, setItems] = useState([]);
   const [loading, setLoading] = useState(true);
@@ -19,6 +21,8 @@ const ItemList = () => {
   const [itemToAdjust, setItemToAdjust] = useState(null);
   const [stockAdjustment, setStockAdjustment] = useState(0);
   const [adjustmentNote, setAdjustmentNote] = useState('');
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   
   const location = useLocation();
   const navigate = useNavigate();
@@ -43,11 +47,13 @@ const ItemList = () => {
     }
   }, [location.search]);
 
+  // Pages through /items/page; the unpaged /items endpoint is capped server-side
   const fetchItems = async () => {
     try {
       setLoading(true);
-      const response = await itemService.getAllItems();
-      setItems(response.data);
+      const response = await itemService.getItemsPage({ size: ITEMS_PAGE_SIZE });
+      setItems(response.data.content);
+      setNextCursor(response.data.hasMore ? response.data.nextCursor : null);
       setLoading(false);
     } catch (err) {
       setError('Failed to fetch items. Please try again later.');
@@ -56,11 +62,27 @@ const ItemList = () => {
     }
   };
   
+  const fetchMoreItems = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const response = await itemService.getItemsPage({ size: ITEMS_PAGE_SIZE, cursor: nextCursor });
+      setItems(previous => [...previous, ...response.data.content]);
+      setNextCursor(response.data.hasMore ? response.data.nextCursor : null);
+      setLoadingMore(false);
+    } catch (err) {
+      setError('Failed to fetch more items. Please try again later.');
+      setLoadingMore(false);
+      console.error('Error fetching more items:', err);
+    }
+  };
+  
   const fetchItemsByCategory = async (categoryId) => {
     try {
       setLoading(true);
       const response = await apiService.getItemsByCategory(categoryId);
       setItems(response.data);
+      setNextCursor(null);
       setLoading(false);
     } catch (err) {
       setError('Failed to fetch items for this category. Please try again later.');
@@ -296,6 +318,13 @@ const ItemList = () => {
               )}
             </tbody>
           </Table>
+          {nextCursor && !categoryFilter && (
+            <div className="text-center mb-3">
+              <Button variant="outline-primary" onClick={fetchMoreItems} disabled={loadingMore}>
+                {loadingMore ? 'Loading...' : 'Load more items'}
+              </Button>
+            </div>
+          )}
         </div>
       )}
       
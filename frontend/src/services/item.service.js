@@ -9,6 +9,10 @@ class ItemService {
     return axios.get(ITEM_API_URL, { headers: authHeader() });
   }
 
+  getItemsPage(params) {
+    return axios.get(`${ITEM_API_URL}/page`, { headers: authHeader(), params });
+  }
+
   getItemById(id) {
     return axios.get(`${ITEM_API_URL}/${id}`, { headers: authHeader() });
   }